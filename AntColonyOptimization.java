@@ -10,121 +10,706 @@
     3. Each ant constructs a tour by repeatedly choosing the next city according to probabilities influenced by pheromone levels and distance.
     4. After all ants complete their tours, update pheromones: increase on used edges, decrease on all due to evaporation.
     5. Repeat the process for a set number of iterations or until convergence.
+
+    Ants within one iteration are independent of each other, so their tours can be built in parallel on a
+    fork-join pool. Every ant draws from its own SplittableRandom, split off a seeded root stream in ant order,
+    and pheromones are updated sequentially in ant order, so a seeded run gives the same result on any number of cores.
+
+    The attractiveness of every edge, pheromone^alpha * (1 / distance)^beta, is cached in a choice-info matrix that is
+    refreshed once after each pheromone update, so Math.pow is only evaluated while ants walk for trails held at tauMin
+    on read (MAX_MIN with lazy evaporation). The heuristic (1 / distance)^beta is folded in during the refresh rather
+    than kept in a matrix of its own. Each ant owns its tour, visited and roulette buffers for the lifetime of the
+    solver, so building a tour allocates nothing.
+
+    For large instances a candidate list of the k nearest neighbours of every city can be precomputed. Ants then sample
+    only among unvisited candidates and fall back to the full scan when all of them are already on the tour, which
+    makes a tour cost roughly O(n * k) instead of O(n^2).
+
+    All matrices live in CityMatrix storage: one flat row-major array per matrix, in double or float precision, on or
+    off the heap, and optionally as an upper triangle for symmetric instances. In the symmetric layout an ant's deposit
+    on edge (i, j) is also seen from (j, i), as in the usual symmetric-TSP formulation.
+
+    run(StopCriteria) keeps the best tour found so far and stops on an iteration budget, a wall-clock budget or after a
+    window of iterations without improvement. An IterationListener receives per-iteration metrics: best and mean tour
+    length, normalized pheromone entropy (1 = uniform trails, near 0 = converged) and the time spent in tour
+    construction versus the pheromone update. With candidate lists the entropy only covers candidate edges, so the
+    metric costs O(n * k) per iteration like construction rather than a full O(n^2) pass over the trails.
+
+    An optional local search stage (2-opt, or 2-opt plus Or-opt) improves every ant's tour right after it is built and
+    before pheromones are deposited. It only scans nearest-neighbour lists and uses don't-look bits, and it runs on the
+    same worker as the ant, so it is parallel across ants like construction. See TourLocalSearch.
+
+    Pheromone update strategies:
+    - ALL_ANTS: every ant deposits 1 / length on its tour (the classic Ant System).
+    - ITERATION_BEST: only the best ant of the iteration deposits.
+    - GLOBAL_BEST_ELITIST: every ant deposits and the best tour found so far gets an extra weight-times deposit.
+    - MAX_MIN: the iteration-best ant deposits and every trail is kept within [tauMin, tauMax], where
+      tauMax = 1 / (decay * best length) and tauMin follows from the probability pBest = 0.05 of rebuilding the best tour.
+    With lazy evaporation the n^2 evaporation sweep disappears: a global scale factor shrinks instead, the stored value
+    of a trail is its real value divided by that factor, and deposits are divided by it on the way in. Only deposited
+    edges have their choice info refreshed, because a common factor on every weight does not change the roulette. The
+    stored values are folded back into real values in one sweep only when the factor gets too small to stay accurate.
+    Under MAX_MIN the lower bound is applied when a trail is read.
     */
 
 import java.util.Arrays;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 class AntColonyOptimization {
 
-    private double[][] distance; // Distance between cities
-    private double[][] pheromones; // Pheromone on path between cities
+    private CityMatrix distance; // Distance between cities
+    private CityMatrix pheromones; // Pheromone on path between cities
+    private CityMatrix choiceInfo; // pheromone^alpha * heuristic, refreshed after each pheromone update
+    private PheromoneUpdate pheromoneUpdate = PheromoneUpdate.ALL_ANTS;
+    private double elitistWeight; // Weight of the best-so-far tour under GLOBAL_BEST_ELITIST
+    private static final double MAX_MIN_P_BEST = 0.05; // Chance of rebuilding the best tour once trails converge
+    private double tauMin = 0; // Lower trail bound; only positive under MAX_MIN
+    private double tauMax = Double.POSITIVE_INFINITY; // Upper trail bound; only finite under MAX_MIN
+    private boolean lazyEvaporation; // Whether evaporation is tracked by pheromoneScale instead of a sweep
+    private double pheromoneScale = 1.0; // Real trail = stored trail * pheromoneScale
+    private double choiceFloor = 0; // Lowest selection weight per unit of heuristic when tauMin is applied on read
+    private double trailFloor = 0; // Stored trail below which choiceFloor applies; 0 when nothing is applied on read
     private int numberOfCities;
     private int numberOfAnts;
     private double decayFactor = 0.5; // Pheromone decay factor
     private double alpha = 1.0; // Pheromone importance
     private double beta = 2.0; // Distance importance
-    private Random random = new Random();
+    private SplittableRandom random; // Root random stream, split once per ant per iteration
+    private int parallelism = 1; // Number of worker threads used to construct tours
+    private Ant[] ants; // Per-ant scratch buffers, reused across iterations
+    private int[][] tours; // Views of each ant's tour buffer
+    private double[] lengths; // Tour length of each ant in the current iteration
+    private int[][] candidates; // k nearest neighbours of each city, nearest first; null for full scans
+    private static final int LOCAL_SEARCH_NEIGHBOURS = 10; // Neighbour list size for local search without candidate lists
+    private TourLocalSearch.Mode localSearchMode = TourLocalSearch.Mode.NONE;
+    private int[][] localSearchNeighbours; // Neighbour lists used by local search; null when it is off
+    private IterationListener listener; // Receives metrics after every iteration of run(); may be null
+    private int[] bestTour; // Best tour found by this solver so far
+    private double bestLength = Double.POSITIVE_INFINITY; // Length of bestTour
 
     public AntColonyOptimization(double[][] distance) {
+        this(distance, System.nanoTime());
+    }
+
+    public AntColonyOptimization(double[][] distance, long seed) {
+        this(CityMatrix.of(distance, CityMatrix.Storage.DOUBLE, false), seed);
+    }
+
+    // Solves on a prebuilt matrix; pheromones and derived matrices use the same layout and storage as distance
+    public AntColonyOptimization(CityMatrix distance, long seed) {
+        this.random = new SplittableRandom(seed);
         this.distance = distance;
-        this.numberOfCities = distance.length;
+        this.numberOfCities = distance.size;
         this.numberOfAnts = numberOfCities;
-        this.pheromones = new double[numberOfCities][numberOfCities];
+        this.pheromones = distance.like();
+        this.choiceInfo = distance.like();
 
-        // Initialize pheromones
-        for (int i = 0; i < numberOfCities; i++) {
-            for (int j = 0; j < numberOfCities; j++) {
-                pheromones[i][j] = 0.1; // Small positive value
+        this.elitistWeight = numberOfCities;
+
+        // Initialize pheromones and the choice info derived from them
+        pheromones.fill(0.1); // Small positive value
+        updateChoiceInfo();
+
+        allocateAnts();
+    }
+
+    private void allocateAnts() {
+        this.ants = new Ant[numberOfAnts];
+        this.tours = new int[numberOfAnts][];
+        this.lengths = new double[numberOfAnts];
+        for (int ant = 0; ant < numberOfAnts; ant++) {
+            ants[ant] = new Ant(numberOfCities);
+            tours[ant] = ants[ant].tour;
+            if (localSearchNeighbours != null) {
+                ants[ant].localSearch = new TourLocalSearch(distance, localSearchNeighbours, localSearchMode);
             }
         }
     }
 
+    // Sets how many ants build a tour per iteration; defaults to one ant per city
+    public void setNumberOfAnts(int numberOfAnts) {
+        if (numberOfAnts < 1) {
+            throw new IllegalArgumentException("Number of ants must be at least 1: " + numberOfAnts);
+        }
+        this.numberOfAnts = numberOfAnts;
+        allocateAnts();
+    }
+
+    // Restricts city selection to the k nearest neighbours of the current city; 0 restores full scans
+    public void setCandidateListSize(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Candidate list size must not be negative: " + k);
+        }
+        if (k == 0 || k >= numberOfCities - 1) {
+            candidates = null; // Every other city is a candidate anyway
+            return;
+        }
+        candidates = nearestNeighbours(distance, k);
+    }
+
+    public enum PheromoneUpdate { ALL_ANTS, ITERATION_BEST, GLOBAL_BEST_ELITIST, MAX_MIN }
+
+    // Chooses which tours deposit pheromone and whether trails are bounded
+    public void setPheromoneUpdate(PheromoneUpdate pheromoneUpdate) {
+        this.pheromoneUpdate = pheromoneUpdate;
+        if (pheromoneUpdate != PheromoneUpdate.MAX_MIN) {
+            tauMin = 0;
+            tauMax = Double.POSITIVE_INFINITY;
+            choiceFloor = 0;
+            trailFloor = 0;
+        }
+    }
+
+    // Sets how many times the best-so-far tour deposits under GLOBAL_BEST_ELITIST; defaults to the number of cities
+    public void setElitistWeight(double elitistWeight) {
+        if (elitistWeight < 0) {
+            throw new IllegalArgumentException("Elitist weight must not be negative: " + elitistWeight);
+        }
+        this.elitistWeight = elitistWeight;
+    }
+
+    // Replaces the evaporation sweep over every trail with a global decay factor applied on read
+    public void setLazyEvaporation(boolean lazyEvaporation) {
+        foldPheromoneScale();
+        this.lazyEvaporation = lazyEvaporation;
+        if (!lazyEvaporation) {
+            choiceFloor = 0; // Eager updates clamp trails to tauMin directly
+            trailFloor = 0;
+        }
+    }
+
+    // Enables a local search stage between tour construction and the pheromone update; NONE turns it off
+    public void setLocalSearch(TourLocalSearch.Mode mode) {
+        localSearchMode = mode;
+        if (mode == TourLocalSearch.Mode.NONE) {
+            localSearchNeighbours = null;
+        } else {
+            // Share the candidate lists when they exist, otherwise build short neighbour lists just for local search
+            localSearchNeighbours = candidates != null ? candidates
+                    : nearestNeighbours(distance, Math.min(LOCAL_SEARCH_NEIGHBOURS, numberOfCities - 1));
+        }
+        allocateAnts();
+    }
+
+    // The k nearest cities of every city, nearest first
+    static int[][] nearestNeighbours(CityMatrix distance, int k) {
+        int n = distance.size;
+        int[][] neighbours = new int[n][];
+        double[] nearestDistances = new double[k];
+        for (int i = 0; i < n; i++) {
+            int[] nearest = new int[k];
+            int size = 0;
+            // Insertion into a sorted array of the k nearest cities seen so far
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double d = distance.get(i, j);
+                if (size == k && d >= nearestDistances[k - 1]) continue;
+                int pos = size < k ? size++ : k - 1;
+                while (pos > 0 && nearestDistances[pos - 1] > d) {
+                    nearestDistances[pos] = nearestDistances[pos - 1];
+                    nearest[pos] = nearest[pos - 1];
+                    pos--;
+                }
+                nearestDistances[pos] = d;
+                nearest[pos] = j;
+            }
+            neighbours[i] = nearest;
+        }
+        return neighbours;
+    }
+
+    // Sets the number of threads that build ant tours; 1 keeps construction on the calling thread
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    // Registers a listener that is called after every iteration of run(); null removes it
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
     public void solve() {
-        for (int iteration = 0; iteration < 10; iteration++) { // Number of iterations
-            int[][] tours = new int[numberOfAnts][numberOfCities];
-            double[] lengths = new double[numberOfAnts];
+        IterationListener previous = listener;
+        // Print the best tour length of each iteration, then pass the metrics on to any registered listener
+        setIterationListener(metrics -> {
+            System.out.println("Iteration " + metrics.iteration + ": Best tour length = " + metrics.iterationBestLength);
+            if (previous != null) {
+                previous.onIteration(metrics);
+            }
+        });
+        try {
+            run(new StopCriteria().maxIterations(10)); // Number of iterations
+        } finally {
+            setIterationListener(previous);
+        }
+    }
+
+    // Iterates until one of the stop criteria is met and returns the best tour found so far
+    public Result run(StopCriteria criteria) {
+        long startNanos = System.nanoTime();
+        int iteration = 0;
+        int sinceImprovement = 0;
+        StopReason reason;
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            while (true) {
+                if (iteration >= criteria.maxIterations) {
+                    reason = StopReason.ITERATION_LIMIT;
+                    break;
+                }
+                if (System.nanoTime() - startNanos >= criteria.timeLimitNanos) {
+                    reason = StopReason.TIME_LIMIT;
+                    break;
+                }
+                if (sinceImprovement >= criteria.stagnationWindow) {
+                    reason = StopReason.STAGNATION;
+                    break;
+                }
+
+                double previousBest = bestLength;
+                long constructionStart = System.nanoTime();
+                int bestAnt = constructAllTours(pool);
+                long updateStart = System.nanoTime();
+                updateTrails(bestAnt);
+                long updateEnd = System.nanoTime();
+
+                if (bestLength < previousBest) {
+                    sinceImprovement = 0;
+                } else {
+                    sinceImprovement++;
+                }
+
+                if (listener != null) {
+                    double mean = 0;
+                    for (int ant = 0; ant < numberOfAnts; ant++) {
+                        mean += lengths[ant];
+                    }
+                    listener.onIteration(new IterationMetrics(iteration, lengths[bestAnt], mean / numberOfAnts,
+                            bestLength, pheromoneEntropy(), updateStart - constructionStart, updateEnd - updateStart));
+                }
+                iteration++;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        int[] tour = bestTour == null ? new int[0] : bestTour.clone();
+        return new Result(tour, bestLength, iteration, System.nanoTime() - startNanos, reason);
+    }
+
+    // Runs one construct-and-update cycle, on the pool when one is given, and returns the best tour length
+    double runIteration(ForkJoinPool pool) {
+        int bestAnt = constructAllTours(pool);
+        updateTrails(bestAnt);
+        return lengths[bestAnt];
+    }
+
+    // Construction phase of an iteration: every ant builds a tour; returns the index of the ant with the shortest tour
+    int constructAllTours(ForkJoinPool pool) {
+        // Give every ant its own random stream, split in ant order so the run is reproducible
+        for (int ant = 0; ant < numberOfAnts; ant++) {
+            ants[ant].random = random.split();
+        }
+
+        // Construct tours for each ant
+        if (pool != null) {
+            pool.invoke(new ConstructTask(0, numberOfAnts));
+        } else {
+            constructTours(0, numberOfAnts);
+        }
+        int bestAnt = 0;
+        for (int ant = 1; ant < numberOfAnts; ant++) {
+            if (lengths[ant] < lengths[bestAnt]) {
+                bestAnt = ant;
+            }
+        }
+        return bestAnt;
+    }
+
+    // Update phase of an iteration, given the best ant from constructAllTours: best-so-far tour, pheromones and the
+    // cached edge attractiveness derived from them
+    void updateTrails(int bestAnt) {
+        if (lengths[bestAnt] < bestLength) {
+            bestLength = lengths[bestAnt];
+            if (bestTour == null) {
+                bestTour = new int[numberOfCities];
+            }
+            System.arraycopy(tours[bestAnt], 0, bestTour, 0, numberOfCities);
+        }
+        updatePheromones(bestAnt);
+        if (!lazyEvaporation) {
+            updateChoiceInfo();
+        }
+    }
+
+    // Average Shannon entropy of the pheromone distribution leaving each city, divided by its maximum log(choices).
+    // With candidate lists only the k candidate edges of a city are measured, so the cost is O(n * k), not O(n^2).
+    private double pheromoneEntropy() {
+        int choices = candidates != null ? candidates[0].length : numberOfCities - 1;
+        if (choices < 2) {
+            return 0; // With at most one outgoing edge there is no choice to measure
+        }
+        double total = 0;
+        for (int i = 0; i < numberOfCities; i++) {
+            int[] nearest = candidates != null ? candidates[i] : null;
+            double rowSum = 0;
+            for (int c = 0; c < choices; c++) {
+                rowSum += pheromone(i, nearest != null ? nearest[c] : c < i ? c : c + 1);
+            }
+            double entropy = 0;
+            for (int c = 0; c < choices; c++) {
+                double p = pheromone(i, nearest != null ? nearest[c] : c < i ? c : c + 1) / rowSum;
+                if (p > 0) entropy -= p * Math.log(p);
+            }
+            total += entropy;
+        }
+        return total / numberOfCities / Math.log(choices);
+    }
+
+    // Stop criteria for run(); a run ends as soon as any one of them is met
+    public static class StopCriteria {
+        private int maxIterations = Integer.MAX_VALUE;
+        private long timeLimitNanos = Long.MAX_VALUE;
+        private int stagnationWindow = Integer.MAX_VALUE;
+
+        // Stops after this many iterations
+        public StopCriteria maxIterations(int maxIterations) {
+            if (maxIterations < 0) {
+                throw new IllegalArgumentException("Iteration budget must not be negative: " + maxIterations);
+            }
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        // Stops before starting an iteration once this much wall-clock time has passed
+        public StopCriteria timeLimit(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Time budget must not be negative: " + duration);
+            }
+            this.timeLimitNanos = unit.toNanos(duration);
+            return this;
+        }
 
-            // Construct tours for each ant
-            for (int ant = 0; ant < numberOfAnts; ant++) {
-                tours[ant] = constructTour(ant);
-                lengths[ant] = calculateTourLength(tours[ant]);
+        // Stops once the best tour has not improved for this many consecutive iterations
+        public StopCriteria stagnationWindow(int iterations) {
+            if (iterations < 1) {
+                throw new IllegalArgumentException("Stagnation window must be at least 1: " + iterations);
             }
+            this.stagnationWindow = iterations;
+            return this;
+        }
+    }
+
+    public enum StopReason { ITERATION_LIMIT, TIME_LIMIT, STAGNATION }
+
+    // Best tour found by a run, how long the run took and why it stopped
+    public static class Result {
+        public final int[] bestTour; // Empty when no iteration was run
+        public final double bestLength;
+        public final int iterations;
+        public final long elapsedNanos;
+        public final StopReason stopReason;
+
+        Result(int[] bestTour, double bestLength, int iterations, long elapsedNanos, StopReason stopReason) {
+            this.bestTour = bestTour;
+            this.bestLength = bestLength;
+            this.iterations = iterations;
+            this.elapsedNanos = elapsedNanos;
+            this.stopReason = stopReason;
+        }
+    }
 
-            // Update pheromones
-            updatePheromones(tours, lengths);
+    // Measurements of a single iteration, published to the IterationListener
+    public static class IterationMetrics {
+        public final int iteration; // Zero-based iteration number within the run
+        public final double iterationBestLength; // Shortest tour built in this iteration
+        public final double meanLength; // Mean tour length over all ants in this iteration
+        public final double bestLength; // Shortest tour found so far
+        // 1 for uniform trails, towards 0 as the colony converges; with candidate lists only candidate edges count
+        public final double pheromoneEntropy;
+        public final long constructionNanos; // Time spent building tours, including local search
+        public final long updateNanos; // Time spent updating pheromones and choice info
 
-            // Optionally, print the best tour length of this iteration
-            System.out.println("Iteration " + iteration + ": Best tour length = " + Arrays.stream(lengths).min().getAsDouble());
+        IterationMetrics(int iteration, double iterationBestLength, double meanLength, double bestLength,
+                         double pheromoneEntropy, long constructionNanos, long updateNanos) {
+            this.iteration = iteration;
+            this.iterationBestLength = iterationBestLength;
+            this.meanLength = meanLength;
+            this.bestLength = bestLength;
+            this.pheromoneEntropy = pheromoneEntropy;
+            this.constructionNanos = constructionNanos;
+            this.updateNanos = updateNanos;
         }
     }
 
-    private int[] constructTour(int ant) {
-        int[] tour = new int[numberOfCities];
-        boolean[] visited = new boolean[numberOfCities];
-        int currentCity = ant % numberOfCities; // Start city
+    // Computing the metrics adds a pheromone entropy pass after every iteration: O(n * k) with candidate lists of size
+    // k, O(n^2) otherwise. It runs after the update is timed, so it shows in elapsed time but not in updateNanos.
+    public interface IterationListener {
+        void onIteration(IterationMetrics metrics);
+    }
+
+    // Scratch state owned by a single ant; only that ant's worker touches it during construction
+    private static class Ant {
+        final int[] tour; // Cities in visiting order
+        final boolean[] visited; // Cities already on the tour
+        final double[] cumulative; // Running sum of choice weights for the roulette wheel
+        SplittableRandom random; // Random stream for the current iteration
+        TourLocalSearch localSearch; // Improves this ant's tour after construction; null when local search is off
+
+        Ant(int numberOfCities) {
+            this.tour = new int[numberOfCities];
+            this.visited = new boolean[numberOfCities];
+            this.cumulative = new double[numberOfCities];
+        }
+    }
+
+    // Builds the tours of ants in the range [from, to); ants only read the shared matrices
+    private void constructTours(int from, int to) {
+        for (int ant = from; ant < to; ant++) {
+            constructTour(ant);
+            if (ants[ant].localSearch != null) {
+                ants[ant].localSearch.improve(tours[ant]);
+            }
+            lengths[ant] = calculateTourLength(tours[ant]);
+        }
+    }
+
+    // Splits a range of ants in halves until it is small enough to build on one worker
+    private class ConstructTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 4; // Ants per leaf task
+        private final int from, to;
+
+        ConstructTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                constructTours(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ConstructTask(from, mid), new ConstructTask(mid, to));
+        }
+    }
+
+    private void constructTour(int antIndex) {
+        Ant ant = ants[antIndex];
+        int[] tour = ant.tour;
+        boolean[] visited = ant.visited;
+        Arrays.fill(visited, false);
+        int currentCity = antIndex % numberOfCities; // Start city
         tour[0] = currentCity;
         visited[currentCity] = true;
 
         for (int i = 1; i < numberOfCities; i++) {
-            currentCity = selectNextCity(currentCity, visited);
+            currentCity = selectNextCity(currentCity, ant);
             tour[i] = currentCity;
             visited[currentCity] = true;
         }
-        return tour;
     }
 
-    private int selectNextCity(int currentCity, boolean[] visited) {
-        double[] probs = calculateProbs(currentCity, visited);
-        double randProb = random.nextDouble();
-        double total = 0;
-        for (int i = 0; i < numberOfCities; i++) {
-            total += probs[i];
-            if (total >= randProb) {
-                return i;
+    private int selectNextCity(int currentCity, Ant ant) {
+        if (candidates != null) {
+            int next = selectCandidateCity(currentCity, ant);
+            if (next >= 0) {
+                return next;
             }
         }
-        return -1; // Should not happen
+        return selectAnyCity(currentCity, ant);
     }
 
-    private double[] calculateProbs(int currentCity, boolean[] visited) {
-        double[] probs = new double[numberOfCities];
+    // Roulette-wheel selection among the unvisited nearest neighbours; -1 when all of them are visited
+    private int selectCandidateCity(int currentCity, Ant ant) {
+        int[] nearest = candidates[currentCity];
+        CityMatrix weights = choiceInfo;
+        double floor = choiceFloor, trailFloor = this.trailFloor;
+        boolean[] visited = ant.visited;
+        double[] cumulative = ant.cumulative;
         double sum = 0;
-        for (int i = 0; i < numberOfCities; i++) {
-            if (!visited[i]) {
-                probs[i] = Math.pow(pheromones[currentCity][i], alpha) * Math.pow(1.0 / distance[currentCity][i], beta);
-                sum += probs[i];
+        int lastCandidate = -1;
+        for (int c = 0; c < nearest.length; c++) {
+            int city = nearest[c];
+            if (!visited[city]) {
+                double weight = weights.get(currentCity, city);
+                if (trailFloor > 0 && pheromones.get(currentCity, city) < trailFloor) {
+                    weight = floor * heuristic(distance.get(currentCity, city)); // The trail counts as tauMin
+                }
+                sum += weight;
+                lastCandidate = c;
             }
+            cumulative[c] = sum;
+        }
+        if (lastCandidate < 0) {
+            return -1;
         }
+        if (!(sum > 0)) {
+            return nearest[lastCandidate];
+        }
+        double point = ant.random.nextDouble() * sum;
+        for (int c = 0; c < lastCandidate; c++) {
+            if (cumulative[c] > point) {
+                return nearest[c];
+            }
+        }
+        return nearest[lastCandidate];
+    }
+
+    // Roulette-wheel selection over the cached choice weights of the unvisited cities
+    private int selectAnyCity(int currentCity, Ant ant) {
+        CityMatrix weights = choiceInfo;
+        double floor = choiceFloor, trailFloor = this.trailFloor;
+        boolean[] visited = ant.visited;
+        double[] cumulative = ant.cumulative;
+        double sum = 0;
+        int lastCandidate = -1;
         for (int i = 0; i < numberOfCities; i++) {
             if (!visited[i]) {
-                probs[i] /= sum;
+                double weight = weights.get(currentCity, i);
+                if (trailFloor > 0 && pheromones.get(currentCity, i) < trailFloor) {
+                    weight = floor * heuristic(distance.get(currentCity, i)); // The trail counts as tauMin
+                }
+                sum += weight;
+                lastCandidate = i;
+            }
+            cumulative[i] = sum;
+        }
+        if (!(sum > 0)) {
+            return lastCandidate; // Every weight underflowed, so any unvisited city will do
+        }
+
+        // First city whose running sum exceeds the random point; visited cities add nothing and are skipped
+        double point = ant.random.nextDouble() * sum;
+        int low = 0, high = lastCandidate;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > point) {
+                high = mid;
+            } else {
+                low = mid + 1;
             }
         }
-        return probs;
+        return low;
+    }
+
+    // Recomputes pheromone^alpha * heuristic for every edge; called once per pheromone update
+    private void updateChoiceInfo() {
+        // All matrices share one layout, so a single pass over the flat entries covers every edge
+        for (int k = 0, entries = choiceInfo.entries(); k < entries; k++) {
+            choiceInfo.setAt(k, Math.pow(pheromones.getAt(k), alpha) * heuristic(distance.getAt(k)));
+        }
+    }
+
+    // Desirability of an edge from its length alone, (1 / distance)^beta
+    private double heuristic(double edgeLength) {
+        return Math.pow(1.0 / edgeLength, beta);
     }
 
     private double calculateTourLength(int[] tour) {
         double length = 0;
         for (int i = 0; i < numberOfCities - 1; i++) {
-            length += distance[tour[i]][tour[i + 1]];
+            length += distance.get(tour[i], tour[i + 1]);
         }
-        length += distance[tour[numberOfCities - 1]][tour[0]]; // Return to start
+        length += distance.get(tour[numberOfCities - 1], tour[0]); // Return to start
         return length;
     }
 
-    private void updatePheromones(int[][] tours, double[] lengths) {
+    // Real trail on edge (i, j), with lazy decay and the MAX_MIN lower bound applied
+    private double pheromone(int i, int j) {
+        return Math.max(pheromones.get(i, j) * pheromoneScale, tauMin);
+    }
+
+    private void updatePheromones(int bestAnt) {
+        // Evaporation
+        if (lazyEvaporation) {
+            pheromoneScale *= 1 - decayFactor;
+            // Stored trails grow as the scale shrinks; fold the scale in before pow(stored, alpha) can overflow
+            if (pheromoneScale < Math.pow(1e-30, 1.0 / Math.max(1.0, alpha))) {
+                foldPheromoneScale();
+            }
+        } else {
+            pheromones.scale(1 - decayFactor);
+        }
+
+        if (pheromoneUpdate == PheromoneUpdate.MAX_MIN) {
+            updateTrailBounds();
+        }
+
+        // Deposits, in ant order so the result does not depend on how tours were scheduled
+        switch (pheromoneUpdate) {
+            case ALL_ANTS:
+                for (int ant = 0; ant < numberOfAnts; ant++) {
+                    deposit(tours[ant], 1.0 / lengths[ant]);
+                }
+                break;
+            case GLOBAL_BEST_ELITIST:
+                for (int ant = 0; ant < numberOfAnts; ant++) {
+                    deposit(tours[ant], 1.0 / lengths[ant]);
+                }
+                deposit(bestTour, elitistWeight / bestLength);
+                break;
+            default: // ITERATION_BEST and MAX_MIN
+                deposit(tours[bestAnt], 1.0 / lengths[bestAnt]);
+                break;
+        }
+
+        // With eager evaporation every trail may have left the bounds, so clamp them all
+        if (pheromoneUpdate == PheromoneUpdate.MAX_MIN && !lazyEvaporation) {
+            for (int k = 0, entries = pheromones.entries(); k < entries; k++) {
+                pheromones.setAt(k, Math.min(Math.max(pheromones.getAt(k), tauMin), tauMax));
+            }
+        }
+    }
+
+    // Adds amount to every edge of tour, including the edge back to the start
+    private void deposit(int[] tour, double amount) {
         for (int i = 0; i < numberOfCities; i++) {
-            for (int j = 0; j < numberOfCities; j++) {
-                pheromones[i][j] *= (1 - decayFactor); // Evaporation
+            int from = tour[i];
+            int to = tour[i + 1 == numberOfCities ? 0 : i + 1];
+            if (!lazyEvaporation) {
+                pheromones.add(from, to, amount);
+                continue;
             }
+            // Work in stored units and refresh just this edge's choice info
+            int k = pheromones.index(from, to);
+            double stored = Math.max(pheromones.getAt(k), tauMin / pheromoneScale) + amount / pheromoneScale;
+            stored = Math.min(stored, tauMax / pheromoneScale);
+            pheromones.setAt(k, stored);
+            choiceInfo.setAt(k, Math.pow(stored, alpha) * heuristic(distance.getAt(k)));
         }
-        for (int ant = 0; ant < numberOfAnts; ant++) {
-            double contribution = 1.0 / lengths[ant];
-            for (int i = 0; i < numberOfCities - 1; i++) {
-                pheromones[tours[ant][i]][tours[ant][i + 1]] += contribution;
+    }
+
+    // MAX_MIN trail limits derived from the best tour so far
+    private void updateTrailBounds() {
+        tauMax = 1.0 / (decayFactor * bestLength);
+        double pDecision = Math.pow(MAX_MIN_P_BEST, 1.0 / numberOfCities);
+        double averageChoices = numberOfCities / 2.0;
+        tauMin = averageChoices > 1 ? tauMax * (1 - pDecision) / ((averageChoices - 1) * pDecision) : 0;
+        tauMin = Math.min(tauMin, tauMax);
+        trailFloor = lazyEvaporation ? tauMin / pheromoneScale : 0;
+        choiceFloor = Math.pow(trailFloor, alpha);
+    }
+
+    // Turns stored trails back into real trails and resets the lazy scale to 1
+    private void foldPheromoneScale() {
+        if (pheromoneScale != 1.0) {
+            pheromones.scale(pheromoneScale);
+            pheromoneScale = 1.0;
+            if (tauMin > 0) {
+                trailFloor = tauMin;
+                choiceFloor = Math.pow(tauMin, alpha);
             }
-            pheromones[tours[ant][numberOfCities - 1]][tours[ant][0]] += contribution; // Return to start contribution
+            updateChoiceInfo();
         }
     }
 
@@ -137,5 +722,38 @@ class AntColonyOptimization {
         };
         AntColonyOptimization aco = new AntColonyOptimization(distance);
         aco.solve();
+
+        // The same seed gives the same tours whether ants are built on one thread or on all cores
+        AntColonyOptimization parallelAco = new AntColonyOptimization(distance, 42L);
+        parallelAco.setParallelism(Runtime.getRuntime().availableProcessors());
+        parallelAco.solve();
+
+        // Symmetric float storage keeps only the upper triangle at 4 bytes per entry
+        double[][] symmetricDistance = {
+                {0, 2, 9, 10},
+                {2, 0, 6, 4},
+                {9, 6, 0, 3},
+                {10, 4, 3, 0}
+        };
+        CityMatrix compact = CityMatrix.of(symmetricDistance, CityMatrix.Storage.FLOAT, true);
+        new AntColonyOptimization(compact, 42L).solve();
+
+        // Run until the best tour stops improving, or one second at most, and report where the time went
+        AntColonyOptimization budgeted = new AntColonyOptimization(symmetricDistance, 42L);
+        budgeted.setIterationListener(metrics -> System.out.printf(
+                "Iteration %d: best %.1f, mean %.1f, entropy %.3f, construction %d ns, update %d ns%n",
+                metrics.iteration, metrics.bestLength, metrics.meanLength, metrics.pheromoneEntropy,
+                metrics.constructionNanos, metrics.updateNanos));
+        AntColonyOptimization.Result result = budgeted.run(new StopCriteria()
+                .timeLimit(1, TimeUnit.SECONDS)
+                .stagnationWindow(5));
+        System.out.println("Best tour " + Arrays.toString(result.bestTour) + " of length " + result.bestLength
+                + " after " + result.iterations + " iterations (" + result.stopReason + ")");
+
+        // MAX-MIN trails with lazy evaporation: no sweep over every edge after each iteration
+        AntColonyOptimization maxMin = new AntColonyOptimization(symmetricDistance, 42L);
+        maxMin.setPheromoneUpdate(PheromoneUpdate.MAX_MIN);
+        maxMin.setLazyEvaporation(true);
+        System.out.println("MAX-MIN best tour length = " + maxMin.run(new StopCriteria().maxIterations(20)).bestLength);
     }
 }
@@ -0,0 +1,216 @@
+/*
+    Purpose:
+    Answers many simultaneous outage queries on one prebuilt NetworkGraph, e.g. the hundreds of device failures of a
+    storm. For every failed device it returns the devices reachable from it (the impact set of NetworkOutage), plus
+    the union of all impact sets.
+
+    Algorithm (multi-source bit-parallel BFS):
+    1. Failed devices are processed in batches of 64. Source i of a batch owns bit i of a long, and each device has
+       a word of the sources that have reached it.
+    2. The BFS runs for all 64 sources at once: a frontier device pushes the bits it received in the last round to
+       each neighbour, and the neighbour keeps the bits it had not seen yet and joins the next frontier if any were
+       new. A device and its links are handled once per round in which it gets new bits, instead of once per source.
+    3. Batches are independent, so they run in parallel on a fork-join pool, each with its own words.
+    4. The impact set of source i is every device holding bit i except the source itself; the union holds every
+       device that is in at least one impact set.
+    5. Scratch words are kept across runs, one set per sweep in flight. A sweep lists the devices it reaches and
+       builds the impact sets and its part of the union from that list, then clears just those words, so after the
+       first storm a sweep costs time proportional to the devices it reaches rather than to the network size.
+    Impact sets are listed in ascending device id rather than DFS order. Each set of scratch words holds three longs
+    and three ints per device, 36 bytes. The query keeps at most one set per worker of its pool (36 MB per worker on
+    a million devices) from the first storm until trim() is called or the query itself is dropped; sets made beyond
+    that cap, when callers outside the pool help with a run, are discarded after their sweep.
+    */
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+class BatchOutageQuery {
+    static final int BATCH = Long.SIZE; // Sources per sweep, one bit each
+
+    private final NetworkGraph graph;
+    private final ForkJoinPool pool;
+    private final ArrayBlockingQueue<Sweep> idle; // Scratch not in use by a sweep, at most one per worker
+
+    BatchOutageQuery(NetworkGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    BatchOutageQuery(NetworkGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, pool.getParallelism()));
+    }
+
+    // Releases the kept scratch words; the next run allocates them again
+    void trim() {
+        idle.clear();
+    }
+
+    // Impact sets of a group of failed devices and their union
+    static final class Result {
+        final int[] failedDevices;
+        final int[][] impacted; // impacted[i] holds the device ids reachable from failedDevices[i], ascending
+        final int[] union; // Every device in at least one impact set, ascending
+
+        Result(int[] failedDevices, int[][] impacted, int[] union) {
+            this.failedDevices = failedDevices;
+            this.impacted = impacted;
+            this.union = union;
+        }
+    }
+
+    Result run(int[] failedDevices) {
+        int[][] impacted = new int[failedDevices.length][];
+        int batches = (failedDevices.length + BATCH - 1) / BATCH;
+        int[][] unionParts = new int[batches][]; // Per batch, the impacted device indices, ascending
+        RecursiveAction[] tasks = new RecursiveAction[batches];
+        for (int b = 0; b < batches; b++) {
+            int batch = b;
+            tasks[b] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    int from = batch * BATCH;
+                    int count = Math.min(BATCH, failedDevices.length - from);
+                    Sweep sweep = idle.poll();
+                    if (sweep == null) {
+                        sweep = new Sweep(graph.size());
+                    }
+                    unionParts[batch] = sweep.run(failedDevices, from, count, impacted);
+                    idle.offer(sweep); // Dropped if the queue already holds one set per worker
+                }
+            };
+        }
+        if (batches == 1) {
+            tasks[0].invoke(); // No point in handing a single sweep to the pool
+        } else if (batches > 1) {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        // Indices follow device ids, so the sorted distinct indices give the union in ascending id order
+        int total = 0;
+        for (int[] part : unionParts) {
+            total += part.length;
+        }
+        int[] union = new int[total];
+        int size = 0;
+        for (int[] part : unionParts) {
+            System.arraycopy(part, 0, union, size, part.length);
+            size += part.length;
+        }
+        if (batches > 1) {
+            Arrays.sort(union);
+        }
+        int distinct = 0, previous = -1;
+        for (int i = 0; i < total; i++) {
+            int v = union[i];
+            if (v != previous) {
+                union[distinct++] = graph.deviceAt(v);
+                previous = v;
+            }
+        }
+        return new Result(failedDevices.clone(), impacted, Arrays.copyOf(union, distinct));
+    }
+
+    // Scratch for one sweep at a time, kept across runs; all words are zero again when a sweep returns
+    private final class Sweep {
+        final long[] seen; // Bit i set once source i has reached the device
+        long[] frontier, next; // Bits received in the current and the next round
+        int[] current, upcoming; // Devices with a non-zero frontier and next word
+        final int[] reached; // Devices with a non-zero seen word, in the order they were first reached
+
+        Sweep(int n) {
+            seen = new long[n];
+            frontier = new long[n];
+            next = new long[n];
+            current = new int[n];
+            upcoming = new int[n];
+            reached = new int[n];
+        }
+
+        // Bit-parallel BFS from failedDevices[from, from + count); fills impacted and returns the indices of the
+        // devices in at least one of the impact sets, ascending. Work is proportional to the devices reached.
+        int[] run(int[] failedDevices, int from, int count, int[][] impacted) {
+            int[] offsets = graph.offsets, adjacency = graph.adjacency;
+            int size = 0, reachedCount = 0;
+            int[] source = new int[count];
+            for (int i = 0; i < count; i++) {
+                source[i] = graph.indexOf(failedDevices[from + i]);
+                if (source[i] < 0) continue; // No link mentions the device, so it impacts nobody
+                int v = source[i];
+                long bit = 1L << i;
+                if (frontier[v] == 0) current[size++] = v;
+                if (seen[v] == 0) reached[reachedCount++] = v;
+                frontier[v] |= bit;
+                seen[v] |= bit;
+            }
+
+            while (size > 0) {
+                int nextSize = 0;
+                for (int f = 0; f < size; f++) {
+                    int v = current[f];
+                    long bits = frontier[v];
+                    frontier[v] = 0;
+                    for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                        int w = adjacency[k];
+                        long added = bits & ~seen[w];
+                        if (added != 0) {
+                            if (seen[w] == 0) reached[reachedCount++] = w;
+                            seen[w] |= added;
+                            if (next[w] == 0) upcoming[nextSize++] = w;
+                            next[w] |= added;
+                        }
+                    }
+                }
+                // The frontier words are all zero again, so they become the next round's buffer
+                long[] words = frontier;
+                frontier = next;
+                next = words;
+                int[] list = current;
+                current = upcoming;
+                upcoming = list;
+                size = nextSize;
+            }
+
+            // A failed device is not part of its own impact set
+            for (int i = 0; i < count; i++) {
+                if (source[i] >= 0) seen[source[i]] &= ~(1L << i);
+            }
+            // Sorting the reached devices lists every impact set in ascending id order
+            Arrays.sort(reached, 0, reachedCount);
+            int[] sizes = new int[count];
+            int unionSize = 0;
+            for (int r = 0; r < reachedCount; r++) {
+                long word = seen[reached[r]];
+                if (word != 0) unionSize++;
+                for (; word != 0; word &= word - 1) {
+                    sizes[Long.numberOfTrailingZeros(word)]++;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                impacted[from + i] = new int[sizes[i]];
+            }
+            Arrays.fill(sizes, 0);
+            int[] union = new int[unionSize];
+            unionSize = 0;
+            for (int r = 0; r < reachedCount; r++) {
+                int v = reached[r];
+                long word = seen[v];
+                seen[v] = 0; // Leave the scratch clean for the next sweep
+                if (word != 0) union[unionSize++] = v;
+                for (; word != 0; word &= word - 1) {
+                    int i = Long.numberOfTrailingZeros(word);
+                    impacted[from + i][sizes[i]++] = graph.deviceAt(v);
+                }
+            }
+            return union;
+        }
+    }
+}
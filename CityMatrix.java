@@ -0,0 +1,182 @@
+/*
+    Purpose:
+    Compact storage for the n x n matrices used by AntColonyOptimization (distances, pheromones and the values derived
+    from them). A double[][] keeps n separate row objects and 8 bytes per city pair; this class keeps one flat,
+    row-major primitive array instead.
+
+    Layouts:
+    - Dense: entry (i, j) lives at i * n + j, so a row is one contiguous run of memory.
+    - Symmetric: only the upper triangle (i <= j) is stored and (j, i) maps to the same entry, halving the footprint.
+      Row i is contiguous from the diagonal onwards; the part left of the diagonal is read column-wise.
+
+    Storage:
+    - DOUBLE: double[] on the heap, 8 bytes per entry.
+    - FLOAT: float[] on the heap, 4 bytes per entry.
+    - OFF_HEAP_FLOAT: direct FloatBuffers outside the Java heap, 4 bytes per entry. A direct buffer holds at most
+      2 GB, so the entries are split into chunks of 2^28 floats (1 GB) and the upper bits of an index pick the chunk.
+    All three are indexed with an int, so a matrix holds at most Integer.MAX_VALUE entries (about 46k cities dense
+    and 65k cities symmetric).
+    */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+abstract class CityMatrix {
+
+    enum Storage { DOUBLE, FLOAT, OFF_HEAP_FLOAT }
+
+    final int size; // Number of cities (rows and columns)
+    final boolean symmetric; // Whether only the upper triangle is stored
+    final Storage storage;
+
+    CityMatrix(int size, boolean symmetric, Storage storage) {
+        this.size = size;
+        this.symmetric = symmetric;
+        this.storage = storage;
+    }
+
+    // Allocates a zero-filled matrix of n cities with the given layout and storage
+    static CityMatrix allocate(int n, Storage storage, boolean symmetric) {
+        long entries = symmetric ? (long) n * (n + 1) / 2 : (long) n * n;
+        if (entries > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many cities for " + storage + " storage: " + n);
+        }
+        switch (storage) {
+            case DOUBLE:
+                return new DoubleMatrix(n, symmetric, (int) entries);
+            case FLOAT:
+                return new FloatMatrix(n, symmetric, (int) entries);
+            default:
+                return new OffHeapFloatMatrix(n, symmetric, (int) entries);
+        }
+    }
+
+    // Copies a square double[][] into a new matrix; for the symmetric layout only the upper triangle is read
+    static CityMatrix of(double[][] values, Storage storage, boolean symmetric) {
+        int n = values.length;
+        CityMatrix matrix = allocate(n, storage, symmetric);
+        for (int i = 0; i < n; i++) {
+            for (int j = symmetric ? i : 0; j < n; j++) {
+                matrix.set(i, j, values[i][j]);
+            }
+        }
+        return matrix;
+    }
+
+    // Allocates an empty matrix with the same size, layout and storage as this one
+    CityMatrix like() {
+        return allocate(size, storage, symmetric);
+    }
+
+    // Flat position of entry (i, j)
+    final int index(int i, int j) {
+        if (!symmetric) {
+            return i * size + j;
+        }
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        // Rows 0..i-1 of the upper triangle hold n + (n-1) + ... + (n-i+1) entries
+        return (int) ((long) i * size - (long) i * (i - 1) / 2) + (j - i);
+    }
+
+    final double get(int i, int j) {
+        return getAt(index(i, j));
+    }
+
+    final void set(int i, int j, double value) {
+        setAt(index(i, j), value);
+    }
+
+    final void add(int i, int j, double value) {
+        int index = index(i, j);
+        setAt(index, getAt(index) + value);
+    }
+
+    // Number of stored entries; flat positions run from 0 to entries() - 1
+    abstract int entries();
+
+    abstract double getAt(int index);
+
+    abstract void setAt(int index, double value);
+
+    // Sets every stored entry to the same value
+    void fill(double value) {
+        for (int k = 0, entries = entries(); k < entries; k++) {
+            setAt(k, value);
+        }
+    }
+
+    // Multiplies every stored entry by factor in one sequential pass
+    void scale(double factor) {
+        for (int k = 0, entries = entries(); k < entries; k++) {
+            setAt(k, getAt(k) * factor);
+        }
+    }
+
+    private static final class DoubleMatrix extends CityMatrix {
+        private final double[] values;
+
+        DoubleMatrix(int size, boolean symmetric, int entries) {
+            super(size, symmetric, Storage.DOUBLE);
+            this.values = new double[entries];
+        }
+
+        int entries() { return values.length; }
+        double getAt(int index) { return values[index]; }
+        void setAt(int index, double value) { values[index] = value; }
+
+        @Override
+        void scale(double factor) {
+            for (int k = 0; k < values.length; k++) {
+                values[k] *= factor;
+            }
+        }
+    }
+
+    private static final class FloatMatrix extends CityMatrix {
+        private final float[] values;
+
+        FloatMatrix(int size, boolean symmetric, int entries) {
+            super(size, symmetric, Storage.FLOAT);
+            this.values = new float[entries];
+        }
+
+        int entries() { return values.length; }
+        double getAt(int index) { return values[index]; }
+        void setAt(int index, double value) { values[index] = (float) value; }
+
+        @Override
+        void scale(double factor) {
+            float f = (float) factor;
+            for (int k = 0; k < values.length; k++) {
+                values[k] *= f;
+            }
+        }
+    }
+
+    private static final class OffHeapFloatMatrix extends CityMatrix {
+        private static final int CHUNK_BITS = 28; // 2^28 floats, 1 GB per direct buffer
+        private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+        private final FloatBuffer[] chunks;
+        private final int entries;
+
+        OffHeapFloatMatrix(int size, boolean symmetric, int entries) {
+            super(size, symmetric, Storage.OFF_HEAP_FLOAT);
+            this.chunks = new FloatBuffer[(int) (((long) entries + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int c = 0; c < chunks.length; c++) {
+                int length = Math.min(CHUNK_MASK + 1, entries - (c << CHUNK_BITS));
+                chunks[c] = ByteBuffer.allocateDirect(length * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            }
+            this.entries = entries;
+        }
+
+        int entries() { return entries; }
+        double getAt(int index) { return chunks[index >>> CHUNK_BITS].get(index & CHUNK_MASK); }
+        void setAt(int index, double value) { chunks[index >>> CHUNK_BITS].put(index & CHUNK_MASK, (float) value); }
+    }
+}
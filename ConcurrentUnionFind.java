@@ -0,0 +1,155 @@
+/*
+    Purpose:
+    Lock-free disjoint-set for parallel MST and connected-components work, shared by any number of threads without a
+    lock. countComponents uses it to union the edges of a graph in parallel blocks on a fork-join pool.
+
+    Algorithm:
+    1. Parents live in an AtomicIntegerArray; parent[i] == i marks a root.
+    2. find uses iterative path halving with CAS. A lost CAS only skips one shortcut, so find never retries.
+    3. union links the root with the lower scrambled index under the other one with a single CAS, and looks the roots
+       up again if another thread linked one of them first. Linking by a fixed scramble of the index keeps trees
+       shallow without ranks, which could not be updated together with the parent in one CAS.
+    4. Each successful union merges two sets and exactly one thread wins it, so counting the unions that returned true
+       gives the number of components exactly.
+    */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent; // parent[i] == i marks a root
+
+    ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    // Representative of the set that contains i; halves the path on the way up
+    int find(int i) {
+        while (true) {
+            int p = parent.get(i);
+            if (p == i) {
+                return i;
+            }
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(i, p, grandparent); // Losing this race only skips one shortcut
+            }
+            i = grandparent;
+        }
+    }
+
+    // Merges the sets of x and y; returns false if they were already the same set
+    boolean union(int x, int y) {
+        while (true) {
+            int xRoot = find(x), yRoot = find(y);
+            if (xRoot == yRoot) {
+                return false;
+            }
+            // Link by scrambled index so no input order builds long chains, and both threads agree on the direction
+            if (priority(xRoot) > priority(yRoot)) {
+                int t = xRoot;
+                xRoot = yRoot;
+                yRoot = t;
+            }
+            if (parent.compareAndSet(xRoot, xRoot, yRoot)) {
+                return true;
+            }
+            // xRoot was linked by another thread in the meantime; look the roots up again
+        }
+    }
+
+    // Whether x and y are in the same set at some moment during the call
+    boolean sameSet(int x, int y) {
+        while (true) {
+            int xRoot = find(x), yRoot = find(y);
+            if (xRoot == yRoot) {
+                return true;
+            }
+            if (parent.get(xRoot) == xRoot) {
+                return false; // xRoot is still a root, so the sets were different when yRoot was found
+            }
+        }
+    }
+
+    // Number of connected components of a graph with the given vertices, with the edges unioned in parallel blocks
+    static int countComponents(EdgeList edges, int vertices, ForkJoinPool pool) {
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(vertices);
+        // Every successful union merges two components, and exactly one thread wins each merge
+        int merges = pool.invoke(new UnionTask(sets, edges, 0, edges.size));
+        return vertices - merges;
+    }
+
+    // Unions the edges in [from, to) and returns how many of them merged two sets
+    private static class UnionTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private static final int BLOCK = 1 << 14; // Edges unioned by one task without splitting further
+        private final ConcurrentUnionFind sets;
+        private final EdgeList edges;
+        private final int from, to;
+
+        UnionTask(ConcurrentUnionFind sets, EdgeList edges, int from, int to) {
+            this.sets = sets;
+            this.edges = edges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= BLOCK) {
+                int merges = 0;
+                for (int i = from; i < to; i++) {
+                    if (sets.union(edges.src[i], edges.dest[i])) merges++;
+                }
+                return merges;
+            }
+            int mid = (from + to) >>> 1;
+            UnionTask left = new UnionTask(sets, edges, from, mid);
+            left.fork();
+            int right = new UnionTask(sets, edges, mid, to).compute();
+            return left.join() + right;
+        }
+    }
+
+    // Bijective scramble of an index (murmur3 finalizer)
+    private static int priority(int i) {
+        i ^= i >>> 16;
+        i *= 0x85EBCA6B;
+        i ^= i >>> 13;
+        i *= 0xC2B2AE35;
+        i ^= i >>> 16;
+        return i;
+    }
+
+    public static void main(String[] args) {
+        // Components {0, 1, 2}, {3, 4} and the isolated vertex 5
+        EdgeList small = new EdgeList(new int[]{0, 1, 3}, new int[]{1, 2, 4}, new int[3]);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Components: " + countComponents(small, 6, pool));
+
+        // A random graph large enough to be split across the pool, checked against the sequential UnionFind
+        int vertices = 1_000_000, edgeCount = 600_000;
+        SplittableRandom random = new SplittableRandom(42);
+        int[] src = new int[edgeCount], dest = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            src[i] = random.nextInt(vertices);
+            dest[i] = random.nextInt(vertices);
+        }
+        EdgeList edges = new EdgeList(src, dest, new int[edgeCount]);
+        UnionFind sequential = new UnionFind(vertices);
+        int expected = vertices;
+        for (int i = 0; i < edgeCount; i++) {
+            if (sequential.find(src[i]) != sequential.find(dest[i])) {
+                sequential.union(src[i], dest[i]);
+                expected--;
+            }
+        }
+        System.out.println("Components of a random graph: " + countComponents(edges, vertices, pool)
+                + " (sequential UnionFind: " + expected + ")");
+    }
+}
@@ -0,0 +1,554 @@
+/*
+    Question:
+    Maintain the minimum spanning tree (or forest) of a network whose links keep changing. Links can be added,
+    their weight can change, and they can be removed. After every change the current spanning tree, its total weight
+    and the connectivity between two devices must be available without recomputing the tree from scratch.
+
+    Algorithm:
+    1. Keep the tree edges in a link-cut tree. Every edge is a node of its own between its two endpoints, holding the
+       edge weight, and each splay tree keeps the heaviest edge node below it, so the heaviest edge on the tree path
+       between two vertices is found in amortized O(log n).
+    2. Every vertex keeps two lists of its incident edges, one for tree edges and one for non-tree edges. The lists
+       are doubly linked through arrays indexed by half-edge (2 * id for the src end, 2 * id + 1 for the dest end),
+       so an edge moves between them in O(1).
+    3. Insert edge (u, v, w):
+       - If u and v are in different trees, link them with the new edge.
+       - Otherwise find the heaviest edge on the tree path from u to v. If it is heavier than w, cut it, link the new
+         edge and keep the old one as a non-tree edge (cycle property). If not, the new edge is a non-tree edge.
+    4. Change a weight: a tree edge that gets lighter stays in the tree, and a non-tree edge that gets heavier stays
+       out, so only the weight is updated. Otherwise the edge is removed and inserted again with its new weight.
+    5. Delete edge:
+       - A non-tree edge is simply dropped.
+       - A tree edge is cut, which splits its tree in two. Two searches over the tree-edge lists start at its
+         endpoints and take turns, one edge at a time, until one of them runs out: that one has walked the whole of
+         the smaller half, having done at most as much work as the other. The lightest non-tree edge from the smaller
+         half to a vertex outside it is linked as the replacement (cut property).
+    Insertions, weight changes that keep an edge on its side and non-tree deletions cost amortized O(log n). Deleting
+    a tree edge costs O(s + d + log n), where s is the size of the smaller half and d the number of non-tree edges at
+    its vertices. That is small when a link cuts off a branch, but it is not polylogarithmic in the worst case: a cut
+    through the middle of a large tree walks half of it. Guaranteed polylogarithmic deletions would need the levelled
+    replacement structure of Holm, de Lichtenberg and Thorup.
+    */
+
+import java.util.Arrays;
+
+public class DynamicMST {
+    private static final int NONE = -1;
+
+    private final int vertices;
+    private final LinkCutTree forest;
+
+    // Incident-edge lists: half-edge h belongs to edge h / 2 and sits at its src end if h is even, its dest end if odd
+    private final int[] treeHead, nonTreeHead; // First half-edge at each vertex, or NONE
+    private int[] nextHalf, previousHalf;
+
+    // Scratch for the replacement search after a tree edge is cut
+    private final int[] mark; // Stamp of the search that reached each vertex
+    private final int[] queueU, queueV;
+    private int stamp;
+
+    // Edge storage indexed by edge id; ids of deleted edges are reused
+    private int[] edgeSrc, edgeDest, edgeWeight;
+    private boolean[] inTree, alive;
+    private int[] freeIds;
+    private int freeCount;
+    private int edgeCapacity;
+    private int nextId;
+
+    private long totalWeight; // Sum of tree edge weights
+    private int treeEdges; // Number of tree edges
+
+    public DynamicMST(int vertices) {
+        this.vertices = vertices;
+        this.edgeCapacity = 16;
+        this.edgeSrc = new int[edgeCapacity];
+        this.edgeDest = new int[edgeCapacity];
+        this.edgeWeight = new int[edgeCapacity];
+        this.inTree = new boolean[edgeCapacity];
+        this.alive = new boolean[edgeCapacity];
+        this.freeIds = new int[edgeCapacity];
+        this.forest = new LinkCutTree(vertices + edgeCapacity);
+        this.treeHead = new int[vertices];
+        this.nonTreeHead = new int[vertices];
+        Arrays.fill(treeHead, NONE);
+        Arrays.fill(nonTreeHead, NONE);
+        this.nextHalf = new int[2 * edgeCapacity];
+        this.previousHalf = new int[2 * edgeCapacity];
+        this.mark = new int[vertices];
+        this.queueU = new int[vertices];
+        this.queueV = new int[vertices];
+    }
+
+    // Starts from a full edge list; the initial tree comes from one radix-sorted Kruskal pass.
+    // Edge i of the list gets id i.
+    public DynamicMST(EdgeList edges, int vertices) {
+        this(vertices);
+        int[] order = KruskalAlgorithm.sortByWeight(edges.weight, edges.size);
+        UnionFind uf = new UnionFind(vertices);
+        for (int i = 0; i < edges.size; i++) {
+            newEdge(edges.src[i], edges.dest[i], edges.weight[i]);
+        }
+        for (int k = 0; k < edges.size; k++) {
+            int e = order[k];
+            int x = uf.find(edges.src[e]), y = uf.find(edges.dest[e]);
+            if (x != y) {
+                uf.union(x, y);
+                linkEdge(e);
+            } else {
+                addHalves(nonTreeHead, e);
+            }
+        }
+    }
+
+    // Adds a link and returns its id
+    public int addEdge(int src, int dest, int weight) {
+        checkVertex(src);
+        checkVertex(dest);
+        int id = newEdge(src, dest, weight);
+        insert(id);
+        return id;
+    }
+
+    // Changes the weight of a link
+    public void updateWeight(int id, int weight) {
+        checkEdge(id);
+        int old = edgeWeight[id];
+        if (weight == old) {
+            return;
+        }
+        if (inTree[id] && weight < old) {
+            forest.setValue(vertices + id, weight); // A lighter tree edge still belongs to the tree
+            totalWeight += (long) weight - old;
+            edgeWeight[id] = weight;
+        } else if (!inTree[id] && weight > old) {
+            edgeWeight[id] = weight; // A heavier non-tree edge still stays out
+        } else {
+            detach(id);
+            edgeWeight[id] = weight;
+            insert(id);
+        }
+    }
+
+    // Removes a link; its id may be handed out again by a later addEdge
+    public void removeEdge(int id) {
+        checkEdge(id);
+        detach(id);
+        alive[id] = false;
+        freeIds[freeCount++] = id;
+    }
+
+    public boolean connected(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        return u == v || forest.findRoot(u) == forest.findRoot(v);
+    }
+
+    public boolean isTreeEdge(int id) {
+        checkEdge(id);
+        return inTree[id];
+    }
+
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    public int treeEdgeCount() {
+        return treeEdges;
+    }
+
+    // Snapshot of the current spanning forest
+    public EdgeList currentTree() {
+        int[] src = new int[treeEdges], dest = new int[treeEdges], weight = new int[treeEdges];
+        int k = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (alive[id] && inTree[id]) {
+                src[k] = edgeSrc[id];
+                dest[k] = edgeDest[id];
+                weight[k] = edgeWeight[id];
+                k++;
+            }
+        }
+        return new EdgeList(src, dest, weight, k);
+    }
+
+    // Places a stored edge either in the tree or in the non-tree set
+    private void insert(int id) {
+        int u = edgeSrc[id], v = edgeDest[id];
+        if (u == v) {
+            addHalves(nonTreeHead, id); // A self-loop never joins the tree
+            return;
+        }
+        if (forest.findRoot(u) != forest.findRoot(v)) {
+            linkEdge(id);
+            return;
+        }
+        int heaviest = forest.pathMax(u, v) - vertices;
+        if (edgeWeight[heaviest] > edgeWeight[id]) {
+            cutEdge(heaviest);
+            addHalves(nonTreeHead, heaviest);
+            linkEdge(id);
+        } else {
+            addHalves(nonTreeHead, id);
+        }
+    }
+
+    // Takes an edge out of the tree or the non-tree lists, reconnecting the tree if needed
+    private void detach(int id) {
+        if (!inTree[id]) {
+            removeHalves(nonTreeHead, id);
+            return;
+        }
+        cutEdge(id);
+        int replacement = findReplacement(edgeSrc[id], edgeDest[id]);
+        if (replacement != NONE) {
+            removeHalves(nonTreeHead, replacement);
+            linkEdge(replacement);
+        }
+    }
+
+    // Lightest non-tree edge between the trees of u and v, which were just split apart, or NONE
+    private int findReplacement(int u, int v) {
+        if (stamp >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(mark, 0);
+            stamp = 0;
+        }
+        int stampU = ++stamp, stampV = ++stamp;
+        mark[u] = stampU;
+        mark[v] = stampV;
+        queueU[0] = u;
+        queueV[0] = v;
+        // Per search: next vertex to expand, queue length, and the next tree half-edge of the vertex being expanded
+        int headU = 0, tailU = 1, halfU = NONE;
+        int headV = 0, tailV = 1, halfV = NONE;
+        int[] side;
+        int sideSize, sideStamp;
+        while (true) {
+            // One step of the search from u
+            if (halfU == NONE) {
+                if (headU == tailU) {
+                    side = queueU;
+                    sideSize = tailU;
+                    sideStamp = stampU;
+                    break;
+                }
+                halfU = treeHead[queueU[headU++]];
+            } else {
+                int w = endpoint(halfU ^ 1);
+                halfU = nextHalf[halfU];
+                if (mark[w] != stampU) {
+                    mark[w] = stampU;
+                    queueU[tailU++] = w;
+                }
+            }
+            // One step of the search from v
+            if (halfV == NONE) {
+                if (headV == tailV) {
+                    side = queueV;
+                    sideSize = tailV;
+                    sideStamp = stampV;
+                    break;
+                }
+                halfV = treeHead[queueV[headV++]];
+            } else {
+                int w = endpoint(halfV ^ 1);
+                halfV = nextHalf[halfV];
+                if (mark[w] != stampV) {
+                    mark[w] = stampV;
+                    queueV[tailV++] = w;
+                }
+            }
+        }
+
+        // Every vertex of the finished half carries sideStamp, so an edge leaving it ends at a vertex without it
+        int best = NONE;
+        for (int i = 0; i < sideSize; i++) {
+            for (int h = nonTreeHead[side[i]]; h != NONE; h = nextHalf[h]) {
+                int e = h >>> 1;
+                if (mark[endpoint(h ^ 1)] != sideStamp && (best == NONE || lighter(e, best))) {
+                    best = e;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Orders edges by weight, then id
+    private boolean lighter(int a, int b) {
+        return edgeWeight[a] != edgeWeight[b] ? edgeWeight[a] < edgeWeight[b] : a < b;
+    }
+
+    private int endpoint(int half) {
+        return (half & 1) == 0 ? edgeSrc[half >>> 1] : edgeDest[half >>> 1];
+    }
+
+    // Puts both ends of an edge at the front of their vertices' lists in head
+    private void addHalves(int[] head, int id) {
+        for (int half = 2 * id; half <= 2 * id + 1; half++) {
+            int v = endpoint(half);
+            previousHalf[half] = NONE;
+            nextHalf[half] = head[v];
+            if (head[v] != NONE) previousHalf[head[v]] = half;
+            head[v] = half;
+        }
+    }
+
+    private void removeHalves(int[] head, int id) {
+        for (int half = 2 * id; half <= 2 * id + 1; half++) {
+            int previous = previousHalf[half], next = nextHalf[half];
+            if (previous == NONE) head[endpoint(half)] = next;
+            else nextHalf[previous] = next;
+            if (next != NONE) previousHalf[next] = previous;
+        }
+    }
+
+    private void linkEdge(int id) {
+        addHalves(treeHead, id);
+        int node = vertices + id;
+        forest.setValue(node, edgeWeight[id]);
+        forest.link(edgeSrc[id], node);
+        forest.link(node, edgeDest[id]);
+        inTree[id] = true;
+        totalWeight += edgeWeight[id];
+        treeEdges++;
+    }
+
+    private void cutEdge(int id) {
+        removeHalves(treeHead, id);
+        int node = vertices + id;
+        forest.cut(edgeSrc[id], node);
+        forest.cut(node, edgeDest[id]);
+        inTree[id] = false;
+        totalWeight -= edgeWeight[id];
+        treeEdges--;
+    }
+
+    private int newEdge(int src, int dest, int weight) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (nextId == edgeCapacity) {
+                grow();
+            }
+            id = nextId++;
+        }
+        edgeSrc[id] = src;
+        edgeDest[id] = dest;
+        edgeWeight[id] = weight;
+        inTree[id] = false;
+        alive[id] = true;
+        return id;
+    }
+
+    private void grow() {
+        edgeCapacity *= 2;
+        edgeSrc = Arrays.copyOf(edgeSrc, edgeCapacity);
+        edgeDest = Arrays.copyOf(edgeDest, edgeCapacity);
+        edgeWeight = Arrays.copyOf(edgeWeight, edgeCapacity);
+        inTree = Arrays.copyOf(inTree, edgeCapacity);
+        alive = Arrays.copyOf(alive, edgeCapacity);
+        freeIds = Arrays.copyOf(freeIds, edgeCapacity);
+        nextHalf = Arrays.copyOf(nextHalf, 2 * edgeCapacity);
+        previousHalf = Arrays.copyOf(previousHalf, 2 * edgeCapacity);
+        forest.ensureCapacity(vertices + edgeCapacity);
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertices) {
+            throw new IllegalArgumentException("Unknown vertex: " + v);
+        }
+    }
+
+    private void checkEdge(int id) {
+        if (id < 0 || id >= nextId || !alive[id]) {
+            throw new IllegalArgumentException("Unknown edge: " + id);
+        }
+    }
+
+    // Link-cut tree over nodes 0..n-1 with path-maximum queries; vertex nodes hold Long.MIN_VALUE
+    private static class LinkCutTree {
+        private int[] left, right, parent, maxNode;
+        private long[] value;
+        private boolean[] reversed;
+        private int[] stack;
+
+        LinkCutTree(int n) {
+            left = new int[0];
+            right = new int[0];
+            parent = new int[0];
+            maxNode = new int[0];
+            value = new long[0];
+            reversed = new boolean[0];
+            stack = new int[0];
+            ensureCapacity(n);
+        }
+
+        void ensureCapacity(int n) {
+            int old = left.length;
+            if (n <= old) {
+                return;
+            }
+            left = Arrays.copyOf(left, n);
+            right = Arrays.copyOf(right, n);
+            parent = Arrays.copyOf(parent, n);
+            maxNode = Arrays.copyOf(maxNode, n);
+            value = Arrays.copyOf(value, n);
+            reversed = Arrays.copyOf(reversed, n);
+            stack = new int[n];
+            for (int x = old; x < n; x++) {
+                left[x] = right[x] = parent[x] = NONE;
+                maxNode[x] = x;
+                value[x] = Long.MIN_VALUE;
+            }
+        }
+
+        void setValue(int x, long v) {
+            access(x);
+            splay(x);
+            value[x] = v;
+            pushUp(x);
+        }
+
+        // Node with the largest value on the path between u and v
+        int pathMax(int u, int v) {
+            makeRoot(u);
+            access(v);
+            splay(v);
+            return maxNode[v];
+        }
+
+        int findRoot(int x) {
+            access(x);
+            splay(x);
+            pushDown(x);
+            while (left[x] != NONE) {
+                x = left[x];
+                pushDown(x);
+            }
+            splay(x);
+            return x;
+        }
+
+        // Joins the trees of x and y with an edge between them; they must be in different trees
+        void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        // Removes the edge between x and y; they must be adjacent
+        void cut(int x, int y) {
+            makeRoot(x);
+            access(y);
+            splay(y);
+            // x is now the only node left of y on the path
+            left[y] = NONE;
+            parent[x] = NONE;
+            pushUp(y);
+        }
+
+        private boolean isSplayRoot(int x) {
+            int p = parent[x];
+            return p == NONE || (left[p] != x && right[p] != x);
+        }
+
+        private void pushUp(int x) {
+            int best = x;
+            int l = left[x], r = right[x];
+            if (l != NONE && value[maxNode[l]] > value[best]) best = maxNode[l];
+            if (r != NONE && value[maxNode[r]] > value[best]) best = maxNode[r];
+            maxNode[x] = best;
+        }
+
+        private void pushDown(int x) {
+            if (reversed[x]) {
+                int t = left[x];
+                left[x] = right[x];
+                right[x] = t;
+                if (left[x] != NONE) reversed[left[x]] ^= true;
+                if (right[x] != NONE) reversed[right[x]] ^= true;
+                reversed[x] = false;
+            }
+        }
+
+        private void rotate(int x) {
+            int p = parent[x], g = parent[p];
+            boolean pIsRoot = isSplayRoot(p);
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] != NONE) parent[right[x]] = p;
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] != NONE) parent[left[x]] = p;
+                left[x] = p;
+            }
+            parent[p] = x;
+            parent[x] = g;
+            if (!pIsRoot) {
+                if (left[g] == p) left[g] = x;
+                else right[g] = x;
+            }
+            pushUp(p);
+            pushUp(x);
+        }
+
+        private void splay(int x) {
+            // Push pending reversals down from the splay root before rotating
+            int top = 0;
+            stack[top++] = x;
+            for (int y = x; !isSplayRoot(y); y = parent[y]) {
+                stack[top++] = parent[y];
+            }
+            while (top > 0) {
+                pushDown(stack[--top]);
+            }
+            while (!isSplayRoot(x)) {
+                int p = parent[x];
+                if (!isSplayRoot(p)) {
+                    int g = parent[p];
+                    boolean zigZig = (left[g] == p) == (left[p] == x);
+                    rotate(zigZig ? p : x);
+                }
+                rotate(x);
+            }
+        }
+
+        private void access(int x) {
+            int last = NONE;
+            for (int y = x; y != NONE; y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                pushUp(y);
+                last = y;
+            }
+            splay(x);
+        }
+
+        private void makeRoot(int x) {
+            access(x);
+            reversed[x] ^= true;
+        }
+    }
+
+    public static void main(String[] args) {
+        // The graph from KruskalAlgorithm: tree 2-3 (4), 0-3 (5), 0-1 (10)
+        EdgeList edges = new EdgeList(
+                new int[]{0, 0, 0, 1, 2},
+                new int[]{1, 2, 3, 3, 3},
+                new int[]{10, 6, 5, 15, 4});
+        DynamicMST mst = new DynamicMST(edges, 4);
+        System.out.println("Initial MST weight: " + mst.totalWeight()); // 19
+
+        int shortcut = mst.addEdge(1, 2, 3); // Replaces 0-1 (10)
+        System.out.println("After adding 1-2 (3): " + mst.totalWeight()); // 12
+
+        mst.updateWeight(3, 1); // 1-3 drops from 15 to 1 and replaces 2-3 (4)
+        System.out.println("After 1-3 drops to 1: " + mst.totalWeight()); // 9
+
+        mst.removeEdge(shortcut); // 2-3 (4) is the lightest link that reconnects 2
+        System.out.println("After removing 1-2: " + mst.totalWeight()); // 10
+
+        mst.removeEdge(4); // Removing 2-3 (4) brings back 0-2 (6)
+        System.out.println("After removing 2-3: " + mst.totalWeight()); // 12
+    }
+}
@@ -0,0 +1,34 @@
+/*
+    Purpose:
+    Edge list of a weighted graph as parallel int[] arrays, so that large graphs need no object per edge. Shared by the
+    array-based KruskalAlgorithm variants and DynamicMST.
+    */
+
+class EdgeList {
+    final int[] src, dest, weight; // Parallel arrays: edge i runs from src[i] to dest[i] with weight[i]
+    final int size; // Number of edges in use; the arrays may be longer
+
+    // Wraps parallel arrays of equal length without copying them
+    EdgeList(int[] src, int[] dest, int[] weight) {
+        this(src, dest, weight, src.length);
+    }
+
+    EdgeList(int[] src, int[] dest, int[] weight, int size) {
+        if (dest.length < size || weight.length < size || src.length < size) {
+            throw new IllegalArgumentException("Edge arrays are shorter than " + size);
+        }
+        this.src = src;
+        this.dest = dest;
+        this.weight = weight;
+        this.size = size;
+    }
+
+    // Sum of all edge weights, as a long so it cannot overflow
+    long totalWeight() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weight[i];
+        }
+        return total;
+    }
+}
@@ -7,8 +7,38 @@
     3. Repeat step 2 until there are (V-1) edges in the spanning tree, where V is the number of vertices.
 
     This implementation uses a custom MinHeap for edge sorting and Union-Find for cycle detection.
+
+    For very large graphs there is also an array-based variant: edges come in as an EdgeList of parallel
+    int[] src, dest and weight arrays, the edge indices are ordered with an LSD radix sort on the weights (three passes
+    of 11 bits, skipping passes where every weight has the same digit), and the MST comes back as an EdgeList too.
+    No object is created per edge.
+
+    computeMSTParallel runs Filter-Kruskal on the same EdgeList: edges are split around a sampled pivot weight,
+    the light half is solved first, and heavy edges whose endpoints are already connected are dropped before they are
+    ever sorted. Partitioning and filtering run in blocks on a fork-join pool; small ranges fall back to the radix-sorted
+    Kruskal above. On dense graphs most heavy edges are filtered out without being sorted.
+
+    computeMSTExternal handles edge lists that do not fit in the heap. Edges are read from a binary file (three
+    big-endian ints per edge: src, dest, weight) through memory-mapped windows and cut into runs; each run is radix
+    sorted in memory and written to a temporary run file. The runs are then merged lazily with a small heap of run
+    cursors, each mapping only a window of its run at a time, and the merged stream goes straight into UnionFind.
+    Merging stops as soon as V-1 edges are accepted, so the heavy tail of most runs is never read back.
+    Only the union-find and the MST itself (O(V)) plus one run of edges are held in memory.
     */
 
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
 class Edge implements Comparable<Edge> {
     int src, dest, weight; // Source vertex, Destination vertex, and Weight of the edge
 
@@ -21,7 +51,7 @@ class Edge implements Comparable<Edge> {
 
     // Comparator method for sorting edges based on their weight
     public int compareTo(Edge compareEdge) {
-        return this.weight - compareEdge.weight;
+        return Integer.compare(this.weight, compareEdge.weight); // Subtraction would overflow for distant weights
     }
 }
 
@@ -94,37 +124,349 @@ class MinHeap {
     }
 }
 
-class UnionFind {
-    int[] parent, rank; // Parent array and rank array for Union-Find
+class FilterKruskal {
+    private static final int BASE_CASE = 1 << 15; // Ranges up to this size are sorted and scanned directly
+    private static final int BLOCK = 1 << 14; // Edges per block in parallel partition and filter passes
+    private static final int SAMPLE = 63; // Weights sampled to choose a pivot
 
-    // Constructor for the UnionFind class
-    UnionFind(int n) {
-        parent = new int[n]; // Initialize parent array
-        rank = new int[n]; // Initialize rank array
-        for (int i = 0; i < n; i++) {
-            parent[i] = i; // Each element is initially its own parent (self-loop)
+    private final EdgeList edges;
+    private final ForkJoinPool pool;
+    private final UnionFind uf;
+    private final int target; // Edges in a spanning tree, V - 1
+    private final int[] order; // Edge indices being partitioned, filtered and sorted
+    private final int[] buffer; // Scratch space the size of order
+    private final int[] src, dest, weight; // Accepted MST edges
+    private final SplittableRandom random = new SplittableRandom(0x5EED); // Fixed seed keeps runs reproducible
+    private int accepted;
+
+    FilterKruskal(EdgeList edges, int V, ForkJoinPool pool) {
+        this.edges = edges;
+        this.pool = pool;
+        this.uf = new UnionFind(V);
+        this.target = Math.max(V - 1, 0);
+        this.order = new int[edges.size];
+        this.buffer = new int[edges.size];
+        for (int i = 0; i < edges.size; i++) {
+            order[i] = i;
         }
+        this.src = new int[target];
+        this.dest = new int[target];
+        this.weight = new int[target];
     }
 
-    // Find the representative of the set that contains element i
-    int find(int i) {
-        if (parent[i] != i) // Path compression heuristic
-            parent[i] = find(parent[i]);
-        return parent[i];
+    EdgeList run() {
+        solve(0, edges.size);
+        return new EdgeList(src, dest, weight, accepted);
     }
 
-    // Union of two sets represented by x and y
-    void union(int x, int y) {
-        int xRoot = find(x), yRoot = find(y); // Find the roots of the sets
+    private void solve(int from, int to) {
+        if (accepted == target || from == to) {
+            return;
+        }
+        if (to - from <= BASE_CASE) {
+            kruskal(from, to);
+            return;
+        }
+        int pivot = samplePivot(from, to);
+        int[] w = edges.weight;
+        int mid = split(from, to, e -> w[e] <= pivot);
+        if (mid == from || mid == to) {
+            kruskal(from, to); // The pivot did not split the range, e.g. every weight is equal
+            return;
+        }
+        solve(from, mid);
+        if (accepted == target) {
+            return;
+        }
+        // Heavy edges inside an existing component can never join the tree
+        int[] s = edges.src, d = edges.dest;
+        int end = split(mid, to, e -> uf.root(s[e]) != uf.root(d[e]));
+        solve(mid, end);
+    }
+
+    // Sorts order[from, to) by weight and accepts edges that join two components
+    private void kruskal(int from, int to) {
+        KruskalAlgorithm.sortByWeight(edges.weight, order, from, to, buffer);
+        for (int k = from; k < to && accepted < target; k++) {
+            int e = order[k];
+            int x = uf.find(edges.src[e]);
+            int y = uf.find(edges.dest[e]);
+            if (x != y) {
+                src[accepted] = edges.src[e];
+                dest[accepted] = edges.dest[e];
+                weight[accepted] = edges.weight[e];
+                accepted++;
+                uf.union(x, y);
+            }
+        }
+    }
+
+    // Median of a few weights drawn from the range
+    private int samplePivot(int from, int to) {
+        int[] sample = new int[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            sample[i] = edges.weight[order[from + random.nextInt(to - from)]];
+        }
+        Arrays.sort(sample);
+        return sample[SAMPLE / 2];
+    }
+
+    // Stable parallel partition of order[from, to): edges matching keep move to the front. Returns the end of that part.
+    private int split(int from, int to, IntPredicate keep) {
+        int blocks = (to - from + BLOCK - 1) / BLOCK;
+        int[] kept = new int[blocks];
+        forEachBlock(blocks, b -> {
+            int count = 0;
+            for (int i = from + b * BLOCK, end = Math.min(to, i + BLOCK); i < end; i++) {
+                if (keep.test(order[i])) count++;
+            }
+            kept[b] = count;
+        });
+        // Each block writes its kept edges after those of earlier blocks, and the rest after all kept edges
+        int[] keptStart = new int[blocks];
+        int total = 0;
+        for (int b = 0; b < blocks; b++) {
+            keptStart[b] = from + total;
+            total += kept[b];
+        }
+        int boundary = from + total;
+        forEachBlock(blocks, b -> {
+            int start = from + b * BLOCK;
+            int k = keptStart[b];
+            int r = boundary + (start - from) - (keptStart[b] - from);
+            for (int i = start, end = Math.min(to, start + BLOCK); i < end; i++) {
+                int e = order[i];
+                if (keep.test(e)) {
+                    buffer[k++] = e;
+                } else {
+                    buffer[r++] = e;
+                }
+            }
+        });
+        System.arraycopy(buffer, from, order, from, to - from);
+        return boundary;
+    }
+
+    private void forEachBlock(int blocks, IntConsumer body) {
+        if (blocks == 1) {
+            body.accept(0);
+        } else {
+            pool.invoke(new BlockTask(body, 0, blocks));
+        }
+    }
+
+    // Runs body for blocks [from, to), splitting the range in halves across the pool
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final IntConsumer body;
+        private final int from, to;
+
+        BlockTask(IntConsumer body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
 
-        // Union by rank heuristic
-        if (rank[xRoot] < rank[yRoot])
-            parent[xRoot] = yRoot;
-        else if (rank[yRoot] < rank[xRoot])
-            parent[yRoot] = xRoot;
-        else {
-            parent[yRoot] = xRoot;
-            rank[xRoot]++;
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BlockTask(body, from, mid), new BlockTask(body, mid, to));
+        }
+    }
+}
+
+class ExternalKruskal {
+    static final int EDGE_BYTES = 3 * Integer.BYTES; // src, dest and weight of one edge in the file
+    static final int DEFAULT_RUN = 1 << 22; // Edges sorted in memory at a time
+    private static final int WINDOW = 1 << 16; // Edges each run cursor maps at a time while merging
+
+    private final Path input;
+    private final int target; // Edges in a spanning tree, V - 1
+    private final int runEdges;
+    private final UnionFind uf;
+    private final int[] src, dest, weight; // Accepted MST edges
+    private int accepted;
+
+    ExternalKruskal(Path input, int V, int runEdges) {
+        if (runEdges <= 0 || runEdges > Integer.MAX_VALUE / EDGE_BYTES) {
+            throw new IllegalArgumentException("Run size out of range: " + runEdges);
+        }
+        this.input = input;
+        this.target = Math.max(V - 1, 0);
+        this.runEdges = runEdges;
+        this.uf = new UnionFind(V);
+        this.src = new int[target];
+        this.dest = new int[target];
+        this.weight = new int[target];
+    }
+
+    EdgeList run() throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            if (in.size() % EDGE_BYTES != 0) {
+                throw new IOException("Edge file length is not a multiple of " + EDGE_BYTES + " bytes: " + input);
+            }
+            long edges = in.size() / EDGE_BYTES;
+            if (edges <= runEdges) {
+                // A single run fits in memory, so there is nothing to merge
+                int count = (int) edges;
+                int[] s = new int[count], d = new int[count], w = new int[count];
+                read(in, 0, count, s, d, w);
+                return KruskalAlgorithm.computeMST(new EdgeList(s, d, w), target + 1);
+            }
+            Path directory = input.toAbsolutePath().getParent(); // Runs are as large as the input, keep them on its disk
+            Path runFile = Files.createTempFile(directory, "kruskal-runs", ".bin");
+            try (FileChannel runs = FileChannel.open(runFile, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE)) {
+                writeRuns(in, runs, edges);
+                merge(runs, edges);
+            } finally {
+                Files.deleteIfExists(runFile);
+            }
+        }
+        return new EdgeList(src, dest, weight, accepted);
+    }
+
+    // Sorts each run of the input by weight and writes it to the same position in the run file
+    private void writeRuns(FileChannel in, FileChannel runs, long edges) throws IOException {
+        int[] s = new int[runEdges], d = new int[runEdges], w = new int[runEdges];
+        int[] order = new int[runEdges], buffer = new int[runEdges];
+        for (long start = 0; start < edges; start += runEdges) {
+            int count = (int) Math.min(runEdges, edges - start);
+            read(in, start, count, s, d, w);
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            KruskalAlgorithm.sortByWeight(w, order, 0, count, buffer);
+            MappedByteBuffer out = runs.map(FileChannel.MapMode.READ_WRITE, start * EDGE_BYTES, (long) count * EDGE_BYTES);
+            for (int i = 0; i < count; i++) {
+                int e = order[i];
+                out.putInt(s[e]).putInt(d[e]).putInt(w[e]);
+            }
+        }
+    }
+
+    // K-way merge of the sorted runs, feeding edges to the union-find until the tree is complete
+    private void merge(FileChannel runs, long edges) throws IOException {
+        int runCount = (int) ((edges + runEdges - 1) / runEdges);
+        RunCursor[] cursors = new RunCursor[runCount];
+        int[] heap = new int[runCount]; // Run indices ordered by the weight of their current edge
+        int size = 0;
+        for (int r = 0; r < runCount; r++) {
+            long start = (long) r * runEdges;
+            cursors[r] = new RunCursor(runs, start, Math.min(edges, start + runEdges));
+            if (cursors[r].advance()) {
+                heap[size] = r;
+                siftUp(heap, size++, cursors);
+            }
+        }
+        while (size > 0 && accepted < target) {
+            RunCursor c = cursors[heap[0]];
+            int x = uf.find(c.src);
+            int y = uf.find(c.dest);
+            if (x != y) {
+                src[accepted] = c.src;
+                dest[accepted] = c.dest;
+                weight[accepted] = c.weight;
+                accepted++;
+                uf.union(x, y);
+            }
+            if (!c.advance()) {
+                heap[0] = heap[--size]; // This run is exhausted
+            }
+            siftDown(heap, size, cursors);
+        }
+    }
+
+    private static void siftUp(int[] heap, int i, RunCursor[] cursors) {
+        int run = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!before(run, heap[parent], cursors)) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = run;
+    }
+
+    private static void siftDown(int[] heap, int size, RunCursor[] cursors) {
+        if (size == 0) return;
+        int run = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(heap[child + 1], heap[child], cursors)) child++;
+            if (!before(heap[child], run, cursors)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = run;
+    }
+
+    // Lighter current edge first; equal weights keep input order by run index
+    private static boolean before(int a, int b, RunCursor[] cursors) {
+        int wa = cursors[a].weight, wb = cursors[b].weight;
+        return wa < wb || (wa == wb && a < b);
+    }
+
+    // Reads count edges starting at edge index start into the arrays, one mapped window at a time
+    private static void read(FileChannel in, long start, int count, int[] s, int[] d, int[] w) throws IOException {
+        MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, start * EDGE_BYTES, (long) count * EDGE_BYTES);
+        for (int i = 0; i < count; i++) {
+            s[i] = window.getInt();
+            d[i] = window.getInt();
+            w[i] = window.getInt();
+        }
+    }
+
+    // Writes edges in the binary format read by computeMSTExternal
+    static void write(EdgeList edges, Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int start = 0; start < edges.size; start += DEFAULT_RUN) {
+                int count = Math.min(DEFAULT_RUN, edges.size - start);
+                MappedByteBuffer window = out.map(FileChannel.MapMode.READ_WRITE, (long) start * EDGE_BYTES,
+                        (long) count * EDGE_BYTES);
+                for (int e = start; e < start + count; e++) {
+                    window.putInt(edges.src[e]).putInt(edges.dest[e]).putInt(edges.weight[e]);
+                }
+            }
+        }
+    }
+
+    // Position in one sorted run; maps the run a window at a time so only the part being merged is resident
+    private static class RunCursor {
+        private final FileChannel file;
+        private long next; // Edge index of the next edge to read
+        private final long end;
+        private MappedByteBuffer window;
+        int src, dest, weight; // Current edge
+
+        RunCursor(FileChannel file, long start, long end) {
+            this.file = file;
+            this.next = start;
+            this.end = end;
+        }
+
+        // Moves to the next edge of the run; returns false once the run is exhausted
+        boolean advance() throws IOException {
+            if (next == end) {
+                window = null;
+                return false;
+            }
+            if (window == null || !window.hasRemaining()) {
+                int count = (int) Math.min(WINDOW, end - next);
+                window = file.map(FileChannel.MapMode.READ_ONLY, next * EDGE_BYTES, (long) count * EDGE_BYTES);
+            }
+            src = window.getInt();
+            dest = window.getInt();
+            weight = window.getInt();
+            next++;
+            return true;
         }
     }
 }
@@ -132,6 +474,14 @@ class UnionFind {
 public class KruskalAlgorithm {
     // Main method to execute Kruskal's algorithm
     static void KruskalMST(Edge[] edges, int V) {
+        // Print the constructed MST
+        for (Edge e : computeMST(edges, V)) {
+            System.out.println(e.src + " -- " + e.dest + " == " + e.weight);
+        }
+    }
+
+    // Returns the V-1 edges of the minimum spanning tree in the order they were accepted
+    static Edge[] computeMST(Edge[] edges, int V) {
         MinHeap minHeap = new MinHeap(edges.length); // Create a MinHeap for edges
         for (Edge edge : edges) {
             minHeap.insert(edge); // Insert all edges into the MinHeap
@@ -155,14 +505,101 @@ public class KruskalAlgorithm {
             }
         }
 
-        // Print the constructed MST
-        for (Edge e : result) {
-            System.out.println(e.src + " -- " + e.dest + " == " + e.weight);
+        return result;
+    }
+
+    // Array-based Kruskal: returns the MST (or spanning forest, if the graph is disconnected) as an EdgeList
+    static EdgeList computeMST(EdgeList edges, int V) {
+        int[] order = sortByWeight(edges.weight, edges.size);
+        UnionFind uf = new UnionFind(V);
+        int capacity = Math.max(V - 1, 0);
+        int[] src = new int[capacity], dest = new int[capacity], weight = new int[capacity];
+        int edgeCount = 0;
+
+        // Accept edges in weight order until V-1 of them are in the tree
+        for (int k = 0; k < edges.size && edgeCount < capacity; k++) {
+            int e = order[k];
+            int x = uf.find(edges.src[e]);
+            int y = uf.find(edges.dest[e]);
+            if (x != y) {
+                src[edgeCount] = edges.src[e];
+                dest[edgeCount] = edges.dest[e];
+                weight[edgeCount] = edges.weight[e];
+                edgeCount++;
+                uf.union(x, y);
+            }
+        }
+        return new EdgeList(src, dest, weight, edgeCount);
+    }
+
+    // Indices 0..count-1 ordered by weight (stable), using an LSD radix sort with 11-bit digits
+    static int[] sortByWeight(int[] weight, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        sortByWeight(weight, order, 0, count, new int[count]);
+        return order;
+    }
+
+    // Stable LSD radix sort of the edge indices order[from, to) by weight; buffer must cover the same range
+    static void sortByWeight(int[] weight, int[] order, int from, int to, int[] buffer) {
+        int count = to - from;
+        int[] counts = new int[1 << 11];
+        int[] in = order, out = buffer;
+        for (int shift = 0; shift < 32; shift += 11) {
+            Arrays.fill(counts, 0);
+            for (int i = from; i < to; i++) {
+                counts[digit(weight[in[i]], shift)]++;
+            }
+            if (count == 0 || counts[digit(weight[in[from]], shift)] == count) {
+                continue; // Every weight has the same digit here, so this pass would not move anything
+            }
+            for (int d = 0, sum = from; d < counts.length; d++) {
+                int c = counts[d];
+                counts[d] = sum;
+                sum += c;
+            }
+            for (int i = from; i < to; i++) {
+                int e = in[i];
+                out[counts[digit(weight[e], shift)]++] = e;
+            }
+            int[] t = in;
+            in = out;
+            out = t;
+        }
+        if (in != order) {
+            System.arraycopy(in, from, order, from, count);
         }
     }
 
+    // Filter-Kruskal on all cores of the common pool
+    static EdgeList computeMSTParallel(EdgeList edges, int V) {
+        return computeMSTParallel(edges, V, ForkJoinPool.commonPool());
+    }
+
+    // Filter-Kruskal with partitioning and filtering spread over the given pool
+    static EdgeList computeMSTParallel(EdgeList edges, int V, ForkJoinPool pool) {
+        return new FilterKruskal(edges, V, pool).run();
+    }
+
+    // External-memory Kruskal over a binary edge file that may be larger than the heap
+    static EdgeList computeMSTExternal(Path edgeFile, int V) throws IOException {
+        return computeMSTExternal(edgeFile, V, ExternalKruskal.DEFAULT_RUN);
+    }
+
+    // External-memory Kruskal sorting runEdges edges in memory at a time
+    static EdgeList computeMSTExternal(Path edgeFile, int V, int runEdges) throws IOException {
+        return new ExternalKruskal(edgeFile, V, runEdges).run();
+    }
+
+    // 11-bit digit of a weight, with the sign bit flipped so negative weights sort first
+    private static int digit(int weight, int shift) {
+        return ((weight ^ Integer.MIN_VALUE) >>> shift) & 0x7FF;
+    }
+
     // Example main method to test the Kruskal's algorithm
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Example usage
         Edge[] edges = {
             new Edge(0, 1, 10),
@@ -174,5 +611,26 @@ public class KruskalAlgorithm {
         int V = 4; // Number of vertices
 
         KruskalMST(edges, V); // Execute Kruskal's algorithm
+
+        // The same graph as parallel arrays, solved without an object per edge
+        EdgeList edgeList = new EdgeList(
+                new int[]{0, 0, 0, 1, 2},
+                new int[]{1, 2, 3, 3, 3},
+                new int[]{10, 6, 5, 15, 4});
+        EdgeList mst = computeMST(edgeList, V);
+        for (int i = 0; i < mst.size; i++) {
+            System.out.println(mst.src[i] + " -- " + mst.dest[i] + " == " + mst.weight[i]);
+        }
+        System.out.println("Total weight: " + mst.totalWeight());
+        System.out.println("Filter-Kruskal total weight: " + computeMSTParallel(edgeList, V).totalWeight());
+
+        // The same graph streamed from a file, with runs of two edges so the merge path is used
+        Path edgeFile = Files.createTempFile("kruskal-edges", ".bin");
+        try {
+            ExternalKruskal.write(edgeList, edgeFile);
+            System.out.println("External total weight: " + computeMSTExternal(edgeFile, V, 2).totalWeight());
+        } finally {
+            Files.delete(edgeFile);
+        }
     }
 }
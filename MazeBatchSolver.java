@@ -0,0 +1,186 @@
+/*
+    Purpose:
+    Solves many key-collecting mazes (see MazeSolver) in one JVM. Mazes are text grid files, one row per line and one
+    character per cell, for example a directory written by a level generator.
+
+    How it works:
+    1. A fixed pool of worker threads bounds the parallelism. Each worker owns one MazeSearch, so its queue and visited
+       buffers are allocated once and reused for every maze it solves.
+    2. A file is read as bytes and the line breaks are squeezed out in place, leaving the row-major byte[] grid that
+       MazeSearch works on without another copy.
+    3. The caller keeps at most two mazes per worker in flight and hands each Result to its consumer as soon as it
+       completes, so results stream back in completion order and a huge directory is never loaded at once.
+    Each Result carries the read and solve times of its maze. A file that cannot be read or is not rectangular yields a
+    Result with an error instead of stopping the batch.
+    */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class MazeBatchSolver implements AutoCloseable {
+
+    enum Mode { BFS, KEY_GRAPH }
+
+    // Outcome of one maze file
+    static final class Result {
+        final Path maze;
+        final int rows, cols;
+        final int moves; // Minimum moves, or -1 if the keys cannot all be collected
+        final long readNanos, solveNanos;
+        final String error; // Why the file could not be solved, or null
+
+        Result(Path maze, int rows, int cols, int moves, long readNanos, long solveNanos, String error) {
+            this.maze = maze;
+            this.rows = rows;
+            this.cols = cols;
+            this.moves = moves;
+            this.readNanos = readNanos;
+            this.solveNanos = solveNanos;
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return maze + ": " + error;
+            }
+            return String.format("%s: %d moves (%d x %d) read %.3f ms, solved %.3f ms",
+                    maze, moves, rows, cols, readNanos / 1e6, solveNanos / 1e6);
+        }
+    }
+
+    private final int workers;
+    private final Mode mode;
+    private final ExecutorService pool;
+    private final ThreadLocal<MazeSearch> search = ThreadLocal.withInitial(MazeSearch::new); // One per worker
+
+    MazeBatchSolver(int workers, Mode mode) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive: " + workers);
+        }
+        this.workers = workers;
+        this.mode = mode;
+        this.pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "maze-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Solves every regular file in directory, passing each result to results on the calling thread as it completes
+    void solveDirectory(Path directory, Consumer<Result> results) throws IOException, InterruptedException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            solve(files.iterator(), results);
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Listing the directory failed part way through
+        }
+    }
+
+    // Solves the maze files in the order given, passing each result to results on the calling thread as it completes
+    void solve(Iterator<Path> mazes, Consumer<Result> results) throws InterruptedException {
+        CompletionService<Result> completed = new ExecutorCompletionService<>(pool);
+        int limit = 2 * workers; // Enough queued work to keep every worker busy
+        int inFlight = 0;
+        while (inFlight > 0 || mazes.hasNext()) {
+            if (inFlight < limit && mazes.hasNext()) {
+                Path maze = mazes.next();
+                completed.submit(() -> solveFile(maze));
+                inFlight++;
+                continue;
+            }
+            try {
+                Result result = completed.take().get();
+                inFlight--;
+                results.accept(result);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Maze worker failed", e.getCause());
+            }
+        }
+    }
+
+    private Result solveFile(Path maze) {
+        long started = System.nanoTime();
+        byte[] grid;
+        int rows, cols;
+        try {
+            grid = Files.readAllBytes(maze);
+            long shape = squeeze(grid);
+            rows = (int) (shape >>> 32);
+            cols = (int) shape;
+        } catch (IOException | IllegalArgumentException e) {
+            return new Result(maze, 0, 0, -1, System.nanoTime() - started, 0, e.toString());
+        }
+        long read = System.nanoTime();
+        MazeSearch engine = search.get();
+        int moves;
+        try {
+            moves = mode == Mode.KEY_GRAPH
+                    ? engine.minMovesViaKeyGraph(grid, rows, cols)
+                    : engine.minMovesToCollectAllKeys(grid, rows, cols);
+        } catch (IllegalArgumentException e) {
+            return new Result(maze, rows, cols, -1, read - started, System.nanoTime() - read, e.toString());
+        }
+        return new Result(maze, rows, cols, moves, read - started, System.nanoTime() - read, null);
+    }
+
+    // Removes line breaks from a text grid in place; returns rows << 32 | cols. Blank lines are skipped.
+    static long squeeze(byte[] text) {
+        int write = 0, rows = 0, cols = -1, rowStart = 0;
+        for (int read = 0; read <= text.length; read++) {
+            byte c = read < text.length ? text[read] : (byte) '\n';
+            if (c == '\r') continue;
+            if (c != '\n') {
+                text[write++] = c;
+                continue;
+            }
+            int length = write - rowStart;
+            if (length == 0) continue;
+            if (cols == -1) {
+                cols = length;
+            } else if (length != cols) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " has " + length + " cells, expected " + cols);
+            }
+            rows++;
+            rowStart = write;
+        }
+        if (rows == 0) {
+            throw new IllegalArgumentException("Empty maze");
+        }
+        return (long) rows << 32 | cols;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // Usage: MazeBatchSolver <directory> [workers] [BFS|KEY_GRAPH]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage: MazeBatchSolver <directory> [workers] [BFS|KEY_GRAPH]");
+            return;
+        }
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Mode mode = args.length > 2 ? Mode.valueOf(args[2]) : Mode.BFS;
+        long started = System.nanoTime();
+        int[] solved = new int[1];
+        try (MazeBatchSolver solver = new MazeBatchSolver(workers, mode)) {
+            solver.solveDirectory(Paths.get(args[0]), result -> {
+                System.out.println(result);
+                solved[0]++;
+            });
+        }
+        System.out.printf("%d mazes in %.1f ms%n", solved[0], (System.nanoTime() - started) / 1e6);
+    }
+}
@@ -0,0 +1,443 @@
+/*
+    Purpose:
+    Allocation-free search engine for the key-collecting maze of MazeSolver. The maze is a byte[] of cell characters in
+    row-major order (cell (x, y) at x * cols + y), so a text grid file can be used as read. The cell characters are the
+    same as in MazeSolver: 'W' is a wall, 'a'-'f' are keys, 'A'-'F' are the matching doors, and every other character
+    is open floor.
+
+    Breadth-first search:
+    1. A state (cell, keys) is packed into one int as cell << 6 | keys, so the queue is a plain int[] ring buffer that
+       only grows when a BFS layer does not fit.
+    2. Visited states form a flat bitset of one long per cell: bit k of visited[cell] is set once the cell is reached
+       holding key mask k. That is 8 bytes per cell where boolean[m][n][64] takes 64 bytes plus a row object per cell.
+    3. The queue is drained one layer at a time, so the distance is a single counter instead of a field per state.
+    4. The search ends when a state holds every key that appears in the maze.
+    States must fit in an int, which limits a maze to 2^25 cells (about 33 million).
+
+    Key-graph search (for large open mazes with few keys and doors):
+    1. Points of interest are 'S' and every key and door cell. A plain BFS over cells from each point finds the
+       distance to every other point it reaches without stepping through one; keys and doors end a path segment, so
+       every route through the maze splits into such segments.
+    2. Dijkstra runs over (point, key mask) states on that graph: arriving at a key adds it to the mask, and a door can
+       only be entered with its key. The first state popped with every key gives the answer.
+    The cell-level work is one BFS of m*n cells per point instead of one over m*n*2^k states, and the key masks only
+    multiply the small point graph.
+
+    A* search to the exit (minMovesToExit):
+    The problem asks to reach 'E' holding every key, which the searches above do not check; like MazeSolver they also
+    read 'E' as the door of key 'e', while here the exit is always open. This search ends at the exit, using
+    A* over (cell, keys) with the lower bound
+        h = min Manhattan distance from the cell to a point of U + Manhattan MST of U,
+    where U is the set of keys still missing plus the exit. Any route must first walk to some point of U and then
+    visit the rest, and a walk through all of U is at least as long as its minimum spanning tree, so h never
+    overestimates. It is also consistent: a move changes the first term by at most one, and picking up a key k never
+    lowers h below what it was, because joining k to the nearest point of U \ {k} extends an MST of U \ {k} to a
+    spanning tree of U. The MST for each of the 64 key masks is computed once per search.
+    With unit moves and a consistent h, f = moves + h never drops, and a move that picks up no key raises it by at
+    most 2. The open list is therefore three LIFO buckets for f, f + 1 and f + 2 holding packed states, plus a heap
+    for the rarer key pickups that jump further ahead; moves is recovered as f - h. The LIFO order breaks ties
+    towards deeper states. The bound needs one cell per key letter and a single exit; other mazes are
+    searched with h = 0, which is plain BFS. expandedStates() reports how many states the last search expanded.
+
+    An instance keeps its queue and visited buffers between calls and is not thread-safe; give each thread its own.
+    */
+
+import java.util.Arrays;
+
+class MazeSearch {
+    static final int KEY_BITS = 6; // Keys 'a' to 'f'
+    static final int MAX_CELLS = 1 << (31 - KEY_BITS); // Largest maze whose packed states fit in an int
+
+    private long[] visited = new long[0]; // Bit k of visited[cell] marks (cell, key mask k) as reached
+    private int[] queue = new int[1 << 10]; // Ring buffer of packed states; the length is a power of two
+    private int head, count;
+    private int[] seen = new int[0]; // Index + 1 of the last key-graph BFS that reached each cell
+    private int[] pointOf = new int[0]; // Index + 1 of the point on each key or door cell, 0 elsewhere
+    private int[] dist = new int[0]; // Dijkstra distance per (point, key mask), KEY_BITS mask bits per point
+    private long[] heap = new long[16]; // Dijkstra queue of distance << 32 | point << KEY_BITS | keys
+    private final int[][] buckets = {new int[16], new int[16], new int[16]}; // A* open list by f mod 3
+    private final int[] bucketSize = new int[3];
+    private final int[] mst = new int[1 << KEY_BITS]; // Manhattan MST of the missing keys and the exit, by key mask
+    private final int[] targetX = new int[KEY_BITS + 1], targetY = new int[KEY_BITS + 1]; // Keys by letter, then exit
+    private int expanded;
+
+    // Minimum moves from 'S' until every key in the maze is held, or -1 if that is impossible
+    int minMovesToCollectAllKeys(byte[] grid, int rows, int cols) {
+        int cells = checkSize(grid, rows, cols);
+        int start = 0, allKeys = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            byte c = grid[cell];
+            if (c == 'S') {
+                start = cell;
+            } else if (c >= 'a' && c <= 'f') {
+                allKeys |= 1 << (c - 'a');
+            }
+        }
+
+        if (visited.length < cells) {
+            visited = new long[cells];
+        } else {
+            Arrays.fill(visited, 0, cells, 0L);
+        }
+        head = 0;
+        count = 0;
+        expanded = 0;
+        visited[start] = 1L;
+        push(start << KEY_BITS);
+
+        for (int moves = 0; count > 0; moves++) {
+            // Everything queued now is exactly moves steps from the start
+            for (int layer = count; layer > 0; layer--) {
+                int state = pop();
+                expanded++;
+                int keys = state & (1 << KEY_BITS) - 1;
+                if (keys == allKeys) {
+                    return moves;
+                }
+                int cell = state >>> KEY_BITS;
+                int y = cell % cols;
+                if (cell >= cols) visit(grid, cell - cols, keys);
+                if (cell + cols < cells) visit(grid, cell + cols, keys);
+                if (y > 0) visit(grid, cell - 1, keys);
+                if (y + 1 < cols) visit(grid, cell + 1, keys);
+            }
+        }
+        return -1;
+    }
+
+    // Queues (cell, keys) unless the cell is a wall, a locked door or already reached with the resulting keys
+    private void visit(byte[] grid, int cell, int keys) {
+        byte c = grid[cell];
+        if (c == 'W') return;
+        if (c >= 'A' && c <= 'F' && (keys & 1 << (c - 'A')) == 0) return;
+        if (c >= 'a' && c <= 'f') keys |= 1 << (c - 'a');
+        long bit = 1L << keys;
+        if ((visited[cell] & bit) != 0) return;
+        visited[cell] |= bit;
+        push(cell << KEY_BITS | keys);
+    }
+
+    // Same answer as minMovesToCollectAllKeys, computed by Dijkstra over a graph of the start, keys and doors
+    int minMovesViaKeyGraph(byte[] grid, int rows, int cols) {
+        int cells = checkSize(grid, rows, cols);
+        int points = 1, allKeys = 0, start = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            byte c = grid[cell];
+            if (c == 'S') start = cell;
+            if (isKey(c) || isDoor(c)) points++;
+            if (isKey(c)) allKeys |= 1 << (c - 'a');
+        }
+        int[] pointCell = new int[points];
+        if (pointOf.length < cells) {
+            pointOf = new int[cells];
+            seen = new int[cells];
+        } else {
+            Arrays.fill(pointOf, 0, cells, 0);
+            Arrays.fill(seen, 0, cells, 0);
+        }
+        pointCell[0] = start;
+        for (int cell = 0, p = 1; cell < cells; cell++) {
+            if (isKey(grid[cell]) || isDoor(grid[cell])) {
+                pointCell[p] = cell;
+                pointOf[cell] = ++p;
+            }
+        }
+        if (allKeys == 0) return 0;
+
+        // Phase 1: distances between points, one cell BFS from each
+        int[][] edgeTo = new int[points][], edgeLength = new int[points][];
+        int[] to = new int[points], length = new int[points];
+        for (int p = 0; p < points; p++) {
+            int edges = 0;
+            int from = pointCell[p];
+            head = 0;
+            count = 0;
+            seen[from] = p + 1;
+            push(from);
+            for (int moves = 1; count > 0; moves++) {
+                for (int layer = count; layer > 0; layer--) {
+                    int cell = pop();
+                    int y = cell % cols;
+                    for (int d = 0; d < 4; d++) {
+                        int next;
+                        if (d == 0) { if (cell < cols) continue; next = cell - cols; }
+                        else if (d == 1) { if (cell + cols >= cells) continue; next = cell + cols; }
+                        else if (d == 2) { if (y == 0) continue; next = cell - 1; }
+                        else { if (y + 1 == cols) continue; next = cell + 1; }
+                        if (seen[next] == p + 1 || grid[next] == 'W') continue;
+                        seen[next] = p + 1;
+                        if (pointOf[next] != 0) {
+                            to[edges] = pointOf[next] - 1; // Stop here: keys and doors end a segment
+                            length[edges++] = moves;
+                        } else {
+                            push(next);
+                        }
+                    }
+                }
+            }
+            if (p == 0 && pointOf[from] != 0 && floorNextTo(grid, from, rows, cols)) {
+                // Without an 'S' the search starts on cell 0, which may hold a key or door of its own; stepping onto
+                // open floor and back reaches it in two moves
+                to[edges] = pointOf[from] - 1;
+                length[edges++] = 2;
+            }
+            edgeTo[p] = Arrays.copyOf(to, edges);
+            edgeLength[p] = Arrays.copyOf(length, edges);
+        }
+
+        // Phase 2: Dijkstra over (point, key mask)
+        int states = points << KEY_BITS;
+        if (dist.length < states) dist = new int[states];
+        Arrays.fill(dist, 0, states, Integer.MAX_VALUE);
+        int heapSize = 0;
+        expanded = 0;
+        dist[0] = 0;
+        heap[heapSize++] = 0L; // Point 0 ('S') with no keys at distance 0
+        while (heapSize > 0) {
+            long top = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heapSize);
+            int d = (int) (top >>> 32);
+            int state = (int) top;
+            if (d > dist[state]) continue; // Stale entry
+            expanded++;
+            int keys = state & (1 << KEY_BITS) - 1;
+            if (keys == allKeys) return d;
+            int p = state >>> KEY_BITS;
+            for (int e = 0; e < edgeTo[p].length; e++) {
+                int q = edgeTo[p][e];
+                byte c = grid[pointCell[q]];
+                if (isDoor(c) && (keys & 1 << (c - 'A')) == 0) continue;
+                int nextKeys = isKey(c) ? keys | 1 << (c - 'a') : keys;
+                int next = q << KEY_BITS | nextKeys;
+                int nd = d + edgeLength[p][e];
+                if (nd < dist[next]) {
+                    dist[next] = nd;
+                    if (heapSize == heap.length) heap = Arrays.copyOf(heap, heapSize * 2);
+                    heap[heapSize] = (long) nd << 32 | next;
+                    siftUp(heapSize++);
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Minimum moves from 'S' to 'E' with every key in the maze collected on the way, or -1 if that is impossible
+    int minMovesToExit(byte[] grid, int rows, int cols) {
+        int cells = checkSize(grid, rows, cols);
+        int start = 0, exit = -1, exits = 0, allKeys = 0;
+        boolean duplicateKey = false;
+        for (int cell = 0; cell < cells; cell++) {
+            byte c = grid[cell];
+            if (c == 'S') {
+                start = cell;
+            } else if (c == 'E') {
+                exit = cell;
+                exits++;
+            } else if (isKey(c)) {
+                int letter = c - 'a';
+                duplicateKey |= (allKeys & 1 << letter) != 0;
+                allKeys |= 1 << letter;
+                targetX[letter] = cell / cols;
+                targetY[letter] = cell % cols;
+            }
+        }
+        expanded = 0;
+        if (exit < 0) return -1;
+        boolean useBound = exits == 1 && !duplicateKey;
+        targetX[KEY_BITS] = exit / cols;
+        targetY[KEY_BITS] = exit % cols;
+        if (useBound) {
+            for (int keys = 0; keys < 1 << KEY_BITS; keys++) {
+                mst[keys] = (keys & ~allKeys) == 0 ? spanningTree(allKeys & ~keys) : 0;
+            }
+        }
+
+        if (visited.length < cells) {
+            visited = new long[cells];
+        } else {
+            Arrays.fill(visited, 0, cells, 0L);
+        }
+        Arrays.fill(bucketSize, 0);
+        int f = useBound ? bound(start, 0, allKeys, cols) : 0;
+        bucketPush(f, start << KEY_BITS);
+        int open = 1;
+        int heapSize = 0; // Entries f << 32 | state more than 2 above the f they were found at
+        while (open > 0) {
+            while (heapSize > 0 && (int) (heap[0] >>> 32) == f) {
+                bucketPush(f, (int) heap[0]);
+                heap[0] = heap[--heapSize];
+                siftDown(heapSize);
+            }
+            int bucket = f % 3;
+            if (bucketSize[bucket] == 0) {
+                f++;
+                continue;
+            }
+            int state = buckets[bucket][--bucketSize[bucket]];
+            open--;
+            int cell = state >>> KEY_BITS;
+            int keys = state & (1 << KEY_BITS) - 1;
+            long bit = 1L << keys;
+            if ((visited[cell] & bit) != 0) continue; // Already expanded with fewer moves
+            visited[cell] |= bit;
+            expanded++;
+            if (keys == allKeys && grid[cell] == 'E') return f; // h is 0 here, so f is the number of moves
+
+            int moves = f - (useBound ? bound(cell, keys, allKeys, cols) : 0);
+            int y = cell % cols;
+            for (int d = 0; d < 4; d++) {
+                int next;
+                if (d == 0) { if (cell < cols) continue; next = cell - cols; }
+                else if (d == 1) { if (cell + cols >= cells) continue; next = cell + cols; }
+                else if (d == 2) { if (y == 0) continue; next = cell - 1; }
+                else { if (y + 1 == cols) continue; next = cell + 1; }
+                byte c = grid[next];
+                // 'E' falls in the door range 'A'-'F', but here it is the exit and always open
+                if (c == 'W' || c != 'E' && isDoor(c) && (keys & 1 << (c - 'A')) == 0) continue;
+                int nextKeys = isKey(c) ? keys | 1 << (c - 'a') : keys;
+                if ((visited[next] & 1L << nextKeys) != 0) continue;
+                int nextF = moves + 1 + (useBound ? bound(next, nextKeys, allKeys, cols) : 0);
+                int nextState = next << KEY_BITS | nextKeys;
+                if (nextF <= f + 2) {
+                    bucketPush(nextF, nextState);
+                } else {
+                    if (heapSize == heap.length) heap = Arrays.copyOf(heap, heapSize * 2);
+                    heap[heapSize] = (long) nextF << 32 | nextState;
+                    siftUp(heapSize++);
+                }
+                open++;
+            }
+        }
+        return -1;
+    }
+
+    // States expanded by the last search: taken from the BFS queue, the Dijkstra heap or the A* open list
+    int expandedStates() {
+        return expanded;
+    }
+
+    // A* lower bound for cell holding keys: nearest missing key or exit, plus the MST of all of them
+    private int bound(int cell, int keys, int allKeys, int cols) {
+        int x = cell / cols, y = cell % cols;
+        int nearest = Math.abs(x - targetX[KEY_BITS]) + Math.abs(y - targetY[KEY_BITS]);
+        for (int missing = allKeys & ~keys; missing != 0; missing &= missing - 1) {
+            int letter = Integer.numberOfTrailingZeros(missing);
+            nearest = Math.min(nearest, Math.abs(x - targetX[letter]) + Math.abs(y - targetY[letter]));
+        }
+        return nearest + mst[keys];
+    }
+
+    // Prim's algorithm on Manhattan distances over the keys in missing plus the exit
+    private int spanningTree(int missing) {
+        int[] points = new int[KEY_BITS + 1];
+        int n = 0;
+        for (int letter = 0; letter < KEY_BITS; letter++) {
+            if ((missing & 1 << letter) != 0) points[n++] = letter;
+        }
+        points[n++] = KEY_BITS;
+        int[] best = new int[n];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        boolean[] inTree = new boolean[n];
+        best[0] = 0;
+        int total = 0;
+        for (int added = 0; added < n; added++) {
+            int next = -1;
+            for (int i = 0; i < n; i++) {
+                if (!inTree[i] && (next < 0 || best[i] < best[next])) next = i;
+            }
+            inTree[next] = true;
+            total += best[next];
+            for (int i = 0; i < n; i++) {
+                int a = points[next], b = points[i];
+                int d = Math.abs(targetX[a] - targetX[b]) + Math.abs(targetY[a] - targetY[b]);
+                if (!inTree[i] && d < best[i]) best[i] = d;
+            }
+        }
+        return total;
+    }
+
+    private void bucketPush(int f, int state) {
+        int b = f % 3;
+        if (bucketSize[b] == buckets[b].length) {
+            buckets[b] = Arrays.copyOf(buckets[b], bucketSize[b] * 2);
+        }
+        buckets[b][bucketSize[b]++] = state;
+    }
+
+    // Whether a neighbour of cell is neither a wall nor a point of interest
+    private boolean floorNextTo(byte[] grid, int cell, int rows, int cols) {
+        int x = cell / cols, y = cell % cols;
+        return x > 0 && isFloor(grid, cell - cols) || x + 1 < rows && isFloor(grid, cell + cols)
+                || y > 0 && isFloor(grid, cell - 1) || y + 1 < cols && isFloor(grid, cell + 1);
+    }
+
+    private boolean isFloor(byte[] grid, int cell) {
+        return grid[cell] != 'W' && pointOf[cell] == 0;
+    }
+
+    private static boolean isKey(byte c) {
+        return c >= 'a' && c <= 'f';
+    }
+
+    private static boolean isDoor(byte c) {
+        return c >= 'A' && c <= 'F';
+    }
+
+    private void siftUp(int i) {
+        long entry = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private void siftDown(int size) {
+        if (size == 0) return;
+        long entry = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (entry <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = entry;
+    }
+
+    private void push(int state) {
+        if (count == queue.length) {
+            // Unroll the ring into a buffer twice as long
+            int[] grown = new int[queue.length * 2];
+            int first = queue.length - head;
+            System.arraycopy(queue, head, grown, 0, first);
+            System.arraycopy(queue, 0, grown, first, head);
+            queue = grown;
+            head = 0;
+        }
+        queue[(head + count++) & queue.length - 1] = state;
+    }
+
+    private int pop() {
+        int state = queue[head];
+        head = (head + 1) & queue.length - 1;
+        count--;
+        return state;
+    }
+
+    // Number of cells, after checking that the grid holds rows x cols cells that can be packed into states
+    static int checkSize(byte[] grid, int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Unsupported maze size: " + rows + " x " + cols);
+        }
+        if (grid.length < rows * cols) {
+            throw new IllegalArgumentException("Grid has " + grid.length + " cells, expected " + rows * cols);
+        }
+        return rows * cols;
+    }
+}
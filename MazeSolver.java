@@ -17,6 +17,13 @@
     4. Keep track of visited states to avoid revisiting the same cell with the same keys collected.
     5. If the exit 'E' is reached and all keys have been collected, return the number of moves made.
     6. If all possible states are explored and the exit cannot be reached with all keys, return -1.
+
+    For large mazes the same search runs on MazeSearch: the grid as a byte[], states packed into ints, an int[] ring
+    buffer queue and a bitset of visited states, with no allocation per state. On big open mazes with few keys,
+    minMovesViaKeyGraph first measures the distances between the start, keys and doors and then runs Dijkstra over
+    (point, keys) instead of searching every (cell, keys) state. MazeBatchSolver solves a directory of maze files on
+    a bounded worker pool with one reused MazeSearch per worker. minMovesToExit also requires reaching 'E' with every
+    key, searching with A* under a Manhattan distance plus spanning-tree lower bound.
     */
 
     
@@ -98,6 +105,33 @@
     
             return -1; // Return -1 if it's impossible to collect all keys
         }
+
+        // Same search on a row-major byte grid, using the packed-state engine
+        public static int minMovesToCollectAllKeys(byte[] grid, int rows, int cols) {
+            return new MazeSearch().minMovesToCollectAllKeys(grid, rows, cols);
+        }
+
+        // Same answer via distances between the start, keys and doors and Dijkstra over (point, keys)
+        public static int minMovesViaKeyGraph(byte[] grid, int rows, int cols) {
+            return new MazeSearch().minMovesViaKeyGraph(grid, rows, cols);
+        }
+
+        // Minimum moves from 'S' to 'E' holding every key, found with A*
+        public static int minMovesToExit(byte[] grid, int rows, int cols) {
+            return new MazeSearch().minMovesToExit(grid, rows, cols);
+        }
+
+        // Row-major byte grid holding the first character of every cell
+        static byte[] toBytes(String[][] grid) {
+            int m = grid.length, n = grid[0].length;
+            byte[] cells = new byte[m * n];
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    cells[i * n + j] = (byte) grid[i][j].charAt(0);
+                }
+            }
+            return cells;
+        }
     
         public static void main(String[] args) {
             // Example grid input
@@ -108,6 +142,20 @@
             };
             // Calculate and print the minimum moves to collect all keys
             System.out.println("Minimum moves to collect all keys: " + minMovesToCollectAllKeys(grid));
+            System.out.println("Packed-state engine: " + minMovesToCollectAllKeys(toBytes(grid), grid.length, grid[0].length));
+            System.out.println("Key graph: " + minMovesViaKeyGraph(toBytes(grid), grid.length, grid[0].length));
+
+            // A* to the exit: collect a and b, then leave through E
+            String[][] withExit = {
+                {"S","P","a","P","P"},
+                {"W","W","W","P","W"},
+                {"E","P","A","P","b"}
+            };
+            MazeSearch search = new MazeSearch();
+            byte[] cells = toBytes(withExit);
+            int moves = search.minMovesToExit(cells, withExit.length, withExit[0].length);
+            System.out.println("Minimum moves to the exit with all keys: " + moves
+                    + " (" + search.expandedStates() + " states expanded)");
         }
     }
     
\ No newline at end of file
@@ -0,0 +1,72 @@
+/*
+    Purpose:
+    Immutable undirected network topology for NetworkOutage, built once from an int[][] edge list and shared by every
+    outage query afterwards.
+
+    Layout:
+    1. Device ids may be sparse (e.g. 7, 1000, 5000000). The distinct ids are sorted into ids[], and a device is
+       referred to internally by its position in that table; indexOf finds the position with a binary search.
+    2. Adjacency is compressed sparse row (CSR): the neighbours of index i are adjacency[offsets[i]] up to
+       adjacency[offsets[i + 1] - 1]. Each edge appears once in each direction, and the neighbours of a device keep
+       the order in which its edges were given, the same order the HashMap of lists in NetworkOutage produces.
+    The whole graph is three int arrays: 4 * (n + 1) bytes of offsets, 4 * n of ids and 8 bytes per edge.
+    */
+
+import java.util.Arrays;
+
+class NetworkGraph {
+    final int[] ids; // Sorted distinct device ids; index i stands for device ids[i]
+    final int[] offsets; // Neighbours of index i are adjacency[offsets[i], offsets[i + 1])
+    final int[] adjacency; // Neighbour indices, not device ids
+
+    NetworkGraph(int[][] edges) {
+        // Distinct device ids, sorted
+        int[] endpoints = new int[2 * edges.length];
+        for (int e = 0; e < edges.length; e++) {
+            endpoints[2 * e] = edges[e][0];
+            endpoints[2 * e + 1] = edges[e][1];
+        }
+        Arrays.sort(endpoints);
+        int n = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            if (i == 0 || endpoints[i] != endpoints[i - 1]) {
+                endpoints[n++] = endpoints[i];
+            }
+        }
+        ids = Arrays.copyOf(endpoints, n);
+
+        // Count degrees, turn the counts into start offsets, then place every edge in both directions
+        int[] src = new int[edges.length], dest = new int[edges.length];
+        offsets = new int[n + 1];
+        for (int e = 0; e < edges.length; e++) {
+            src[e] = indexOf(edges[e][0]);
+            dest[e] = indexOf(edges[e][1]);
+            offsets[src[e] + 1]++;
+            offsets[dest[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        adjacency = new int[2 * edges.length];
+        int[] next = Arrays.copyOf(offsets, n); // Next free slot in each neighbour list
+        for (int e = 0; e < edges.length; e++) {
+            adjacency[next[src[e]]++] = dest[e];
+            adjacency[next[dest[e]]++] = src[e];
+        }
+    }
+
+    // Number of devices
+    int size() {
+        return ids.length;
+    }
+
+    // Index of a device id, or -1 if no edge mentions it
+    int indexOf(int device) {
+        int index = Arrays.binarySearch(ids, device);
+        return index >= 0 ? index : -1;
+    }
+
+    int deviceAt(int index) {
+        return ids[index];
+    }
+}
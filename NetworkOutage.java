@@ -12,14 +12,42 @@
     2. Perform a Depth-First Search (DFS) starting from the target device to find all reachable devices.
     3. Collect all devices reached during the DFS as they are impacted by the outage.
     4. Return the list of impacted devices.
+
+    When many outages are queried against the same network, build a NetworkGraph once: it keeps the topology as
+    compressed sparse row arrays with a table mapping sparse device ids to dense indices. OutageTraversal then answers
+    each query with an iterative DFS that keeps the recursive order, epoch-stamped visited marks and an int[] output,
+    so a query neither recurses nor allocates.
+
+    The DFS reports every device reachable from the failed one. OutageImpactIndex answers the narrower question of
+    which devices lose their connection to the core routers, in time proportional to the answer, from the
+    biconnected blocks of the network, which it keeps up to date as links are added. For many simultaneous failures,
+    BatchOutageQuery runs a bit-parallel BFS for 64 failed devices per sweep and spreads the sweeps over a fork-join
+    pool.
     */
 
     import java.util.ArrayList;
+    import java.util.Arrays;
     import java.util.HashMap;
     import java.util.List;
     import java.util.Map;
     
     public class NetworkOutage {
+        // Traversal engine and output buffer for the graph each thread queried last, so repeated queries on one
+        // prebuilt graph do not allocate and clear O(devices) scratch arrays every time
+        private static final ThreadLocal<TraversalCache> TRAVERSALS = new ThreadLocal<>();
+
+        private static final class TraversalCache {
+            final NetworkGraph graph;
+            final OutageTraversal traversal;
+            final int[] out;
+
+            TraversalCache(NetworkGraph graph) {
+                this.graph = graph;
+                this.traversal = new OutageTraversal(graph);
+                this.out = new int[graph.size()];
+            }
+        }
+
         /*
         Method to add an edge to the graph. This ensures the graph is undirected.
         - src: Source node of the edge
@@ -79,6 +107,31 @@
             return impacted;
         }
         
+        /*
+        Method to find impacted devices on a graph that was built once.
+        - graph: Prebuilt CSR graph of the network
+        - targetDevice: The device with a power outage
+        Returns the impacted device ids, in the same order as findImpactedDevices(edges, targetDevice).
+        The scratch arrays are cached per thread for the graph it queried last, so after the first query only the
+        returned list is allocated. This is a convenience path: callers on a hot path should hold their own
+        OutageTraversal and int[] buffer, which avoids the boxed list as well. Each thread keeps its last graph
+        reachable until it queries another one.
+        */
+        public static List<Integer> findImpactedDevices(NetworkGraph graph, int targetDevice) {
+            TraversalCache cache = TRAVERSALS.get();
+            if (cache == null || cache.graph != graph) {
+                cache = new TraversalCache(graph);
+                TRAVERSALS.set(cache);
+            }
+            // Iterative DFS, so a long chain of devices cannot overflow the stack
+            int count = cache.traversal.findImpacted(targetDevice, cache.out);
+            List<Integer> impacted = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                impacted.add(cache.out[i]);
+            }
+            return impacted;
+        }
+        
         public static void main(String[] args) {
             // Network connections represented as edges
             int[][] edges = {{0,1},{0,2},{1,3},{1,6},{2,4},{4,6},{4,5},{5,7}};
@@ -87,5 +140,29 @@
             // Find and print the list of impacted devices
             List<Integer> impactedDevices = findImpactedDevices(edges, targetDevice);
             System.out.println("Impacted Device List = " + impactedDevices);
+            // The same query on a graph built once, with sparse device ids
+            int[][] sparseEdges = {{0,1000},{0,2},{1000,3},{1000,6},{2,40000},{40000,6},{40000,5},{5,7}};
+            NetworkGraph graph = new NetworkGraph(sparseEdges);
+            System.out.println("Impacted Device List (sparse ids) = " + findImpactedDevices(graph, 40000));
+            // Repeated queries with one traversal engine and output buffer
+            OutageTraversal traversal = new OutageTraversal(graph);
+            int[] out = new int[graph.size()];
+            for (int device : new int[]{40000, 5}) {
+                int count = traversal.findImpacted(device, out);
+                System.out.println("Impacted by " + device + " = " + Arrays.toString(Arrays.copyOf(out, count)));
+            }
+            // Devices that lose their connection to core router 0 when device 4 fails
+            OutageImpactIndex index = new OutageImpactIndex(edges, new int[]{0});
+            int[] lost = new int[index.lostDeviceCount(targetDevice)];
+            index.findLostDevices(targetDevice, lost);
+            System.out.println("Devices losing service = " + Arrays.toString(lost));
+            index.addEdge(7, 3); // A new link gives 5 and 7 another way to the core
+            System.out.println("After adding link 7-3: " + index.lostDeviceCount(targetDevice) + " devices lose service");
+            // Several failures at once on the sparse-id graph
+            BatchOutageQuery.Result storm = new BatchOutageQuery(graph).run(new int[]{40000, 7, 123});
+            for (int i = 0; i < storm.failedDevices.length; i++) {
+                System.out.println("Impacted by " + storm.failedDevices[i] + " = " + Arrays.toString(storm.impacted[i]));
+            }
+            System.out.println("Impacted by any = " + Arrays.toString(storm.union));
         }
     }
\ No newline at end of file
@@ -0,0 +1,360 @@
+/*
+    Purpose:
+    Precomputed answers to "which devices lose service if device X fails" for NetworkOutage. A device has service
+    while it is connected to at least one core router, so the devices that lose service are those whose every path
+    to the core runs through X. (The plain DFS in NetworkOutage reports everything reachable from X instead.)
+
+    Algorithm:
+    1. Add a virtual root R linked to every core router; "connected to the core" becomes "connected to R".
+    2. The devices connected to R are kept in a spanning tree rooted at R, cut into blocks (biconnected components).
+       Every tree edge (v, parent[v]) belongs to exactly one block, so a block is stored as the set of devices v whose
+       parent edge it holds, in a union-find, plus its top: the one device of the block closer to R than all the
+       others. Each device also lists the blocks whose top it is.
+    3. If X fails, the devices that lose service are exactly those in the blocks below X: the blocks whose top is X,
+       the blocks whose top is one of their devices, and so on. A query walks those lists and costs O(answer).
+    Devices with no path to any core router never had service and are not reported. The failed device itself is not
+    reported either, in line with NetworkOutage.
+
+    Updates (incremental biconnectivity):
+    1. A link between two devices with service closes a cycle through the tree path between them, so every block on
+       that path becomes one block. Both ends climb a block at a time (always the deeper end first) until they meet,
+       and the blocks they pass are merged; the meeting device is the top of the merged block. Every block passed is
+       merged away, so a link costs amortized O(alpha(n)) plus the merges it makes.
+    2. A link from a device with service to one without brings the latter's whole component into service. That
+       component is walked once with Tarjan's low-link DFS, with the new link as the parent edge of its root: for a
+       tree child c of p, the devices of c's subtree that are not in a deeper block form c's block, with top p,
+       when low[c] >= pre[p]. The component has no other link to the served devices, so these blocks are exact.
+    3. A link between two devices without service is only recorded.
+    A device is grafted once, when it gains service, and a served device never has to be walked again, so the whole
+    stream of links costs O((devices + links) * alpha(n)). The constructor records all links first and then grafts
+    from the core routers, which is one Tarjan pass over the network. Lookups never rebuild anything.
+    */
+
+import java.util.Arrays;
+
+class OutageImpactIndex {
+    private static final int NONE = -1;
+    private static final int ROOT = 0; // Index of the virtual root
+
+    // Devices: index 0 is the virtual root, device ids map to the other indices through an open-addressing table
+    private int[] ids = new int[16]; // Device id of each index
+    private int devices = 1;
+    private int[] tableKeys = new int[64], tableValues = new int[64]; // Value is index + 1; 0 marks an empty slot
+
+    // Links as half-edges: half h belongs to link h / 2 and sits at linkEnd[h]; the other end is linkEnd[h ^ 1]
+    private int[] linkEnd = new int[32];
+    private int[] nextHalf = new int[32]; // Next half-edge at the same device
+    private int[] firstHalf = new int[16]; // First half-edge at each device, or NONE
+    private int links;
+
+    // Spanning tree of the devices with service, rooted at the virtual root
+    private boolean[] inService = new boolean[16];
+    private int[] parent = new int[16], depth = new int[16];
+
+    // Blocks: union-find over devices; a block is represented by one of its devices
+    private int[] blockParent = new int[16], blockSize = new int[16];
+    private int[] top = new int[16]; // Top device of each block representative
+    private int[] memberFirst = new int[16], memberLast = new int[16], memberNext = new int[16]; // Devices of a block
+    private int[] childFirst = new int[16]; // First block whose top is each device, or NONE
+    private int[] childNext = new int[16], childPrevious = new int[16]; // Sibling blocks with the same top
+
+    // Tarjan DFS state for grafting: preorder number, low-link and next half-edge to scan of each device
+    private int[] pre = new int[16], low = new int[16], cursor = new int[16];
+    private int clock; // Last preorder number handed out; devices are grafted once, so it never wraps
+
+    private int[] stack = new int[16]; // Scratch for grafting and queries
+    private int[] grafted = new int[16]; // Scratch: devices visited by a graft and not yet in a block
+
+    OutageImpactIndex(int[][] edges, int[] coreRouters) {
+        Arrays.fill(firstHalf, NONE);
+        Arrays.fill(childFirst, NONE);
+        inService[ROOT] = true;
+        // Record every link first, so each core's component is grafted in one walk instead of device by device
+        for (int[] edge : edges) {
+            recordLink(indexFor(edge[0]), indexFor(edge[1]));
+        }
+        // The virtual links R -- core are not recorded, as nothing ever walks out of R
+        for (int device : coreRouters) {
+            int core = indexFor(device);
+            if (inService[core]) {
+                mergePath(ROOT, core); // Already reached through another core
+            } else {
+                graft(ROOT, core);
+            }
+        }
+    }
+
+    // Records a new link and updates the blocks it affects
+    void addEdge(int device, int otherDevice) {
+        int u = indexFor(device), w = indexFor(otherDevice);
+        if (inService[u] && inService[w]) {
+            mergePath(u, w);
+        } else if (inService[u]) {
+            graft(u, w);
+        } else if (inService[w]) {
+            graft(w, u);
+        }
+        recordLink(u, w);
+    }
+
+    // Number of devices that lose service if failedDevice goes down, counted in O(answer)
+    int lostDeviceCount(int failedDevice) {
+        return walkLostDevices(failedDevice, null);
+    }
+
+    // Writes the ids of the devices that lose service if failedDevice goes down into out (block by block, each block
+    // followed by the blocks below it) and returns how many there are
+    int findLostDevices(int failedDevice, int[] out) {
+        return walkLostDevices(failedDevice, out);
+    }
+
+    private int walkLostDevices(int failedDevice, int[] out) {
+        int x = indexOf(failedDevice);
+        if (x < 0 || !inService[x]) {
+            return 0; // Unknown, or never had service and so cuts nobody off
+        }
+        int count = 0, size = 0;
+        for (int b = childFirst[x]; b != NONE; b = childNext[b]) {
+            stack[size++] = b;
+        }
+        while (size > 0) {
+            int b = stack[--size];
+            for (int v = memberFirst[b]; v != NONE; v = memberNext[v]) {
+                if (out != null) {
+                    if (count == out.length) {
+                        throw new IllegalArgumentException("Output buffer holds " + out.length + " devices, need more");
+                    }
+                    out[count] = ids[v];
+                }
+                count++;
+                // Every block is below exactly one device, so the stack never holds more blocks than there are devices
+                for (int c = childFirst[v]; c != NONE; c = childNext[c]) {
+                    stack[size++] = c;
+                }
+            }
+        }
+        return count;
+    }
+
+    // A new link between u and w, both with service: merges the blocks on the tree path between them
+    private void mergePath(int u, int w) {
+        int x = u, y = w, merged = NONE;
+        while (x != y) {
+            if (depth[x] < depth[y]) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+            // x is deeper, or as deep and different, so x is not the meeting point and its parent edge is on the path
+            int b = findBlock(x);
+            int above = top[b];
+            if (b != merged) {
+                unlinkChild(b);
+                merged = merged == NONE ? b : unionBlocks(merged, b);
+            }
+            x = above;
+        }
+        if (merged != NONE) {
+            top[merged] = x;
+            linkChild(merged, x);
+        }
+    }
+
+    // Brings the component of b, which has no service yet, into service below a through the new link a -- b.
+    // One iterative Tarjan DFS from b finds the component's blocks directly.
+    private void graft(int a, int b) {
+        parent[b] = a;
+        depth[b] = depth[a] + 1;
+        inService[b] = true;
+        pre[b] = low[b] = ++clock;
+        cursor[b] = firstHalf[b];
+        int depthTop = 0, pending = 0;
+        stack[depthTop++] = b; // Open DFS calls
+        grafted[pending++] = b; // Visited devices not yet assigned to a block
+        while (depthTop > 0) {
+            int v = stack[depthTop - 1];
+            int h = cursor[v], next = NONE;
+            // The new link is not recorded yet, so the walk stays in b's component
+            for (; h != NONE; h = nextHalf[h]) {
+                int w = linkEnd[h ^ 1];
+                if (!inService[w]) {
+                    next = w;
+                    h = nextHalf[h];
+                    break;
+                }
+                low[v] = Math.min(low[v], pre[w]); // Non-tree link, or a link back to the parent
+            }
+            cursor[v] = h;
+            if (next != NONE) {
+                inService[next] = true;
+                parent[next] = v;
+                depth[next] = depth[v] + 1;
+                pre[next] = low[next] = ++clock;
+                cursor[next] = firstHalf[next];
+                stack[depthTop++] = next;
+                grafted[pending++] = next;
+                continue;
+            }
+            depthTop--; // v is finished
+            int p = parent[v];
+            if (v != b) {
+                low[p] = Math.min(low[p], low[v]);
+            }
+            // Without p, the subtree of v has no way back (b's only way back is the new link), so the devices
+            // visited since v form v's block, with top p
+            if (v == b || low[v] >= pre[p]) {
+                blockSize[v] = 0;
+                memberFirst[v] = memberLast[v] = v;
+                memberNext[v] = NONE;
+                int m;
+                do {
+                    m = grafted[--pending];
+                    blockParent[m] = v;
+                    blockSize[v]++;
+                    if (m != v) {
+                        memberNext[m] = memberFirst[v];
+                        memberFirst[v] = m;
+                    }
+                } while (m != v);
+                top[v] = p;
+                linkChild(v, p);
+            }
+        }
+    }
+
+    private int findBlock(int v) {
+        while (blockParent[v] != v) {
+            blockParent[v] = blockParent[blockParent[v]];
+            v = blockParent[v];
+        }
+        return v;
+    }
+
+    // Joins two block representatives and their device lists; returns the new representative, which keeps the higher
+    // of the two tops
+    private int unionBlocks(int a, int b) {
+        if (blockSize[a] < blockSize[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        if (depth[top[b]] < depth[top[a]]) {
+            top[a] = top[b];
+        }
+        blockParent[b] = a;
+        blockSize[a] += blockSize[b];
+        memberNext[memberLast[a]] = memberFirst[b];
+        memberLast[a] = memberLast[b];
+        return a;
+    }
+
+    private void linkChild(int block, int device) {
+        childPrevious[block] = NONE;
+        childNext[block] = childFirst[device];
+        if (childFirst[device] != NONE) childPrevious[childFirst[device]] = block;
+        childFirst[device] = block;
+    }
+
+    private void unlinkChild(int block) {
+        int previous = childPrevious[block], next = childNext[block];
+        if (previous == NONE) childFirst[top[block]] = next;
+        else childNext[previous] = next;
+        if (next != NONE) childPrevious[next] = previous;
+    }
+
+    private void recordLink(int u, int w) {
+        if (2 * links + 2 > linkEnd.length) {
+            linkEnd = Arrays.copyOf(linkEnd, 2 * linkEnd.length);
+            nextHalf = Arrays.copyOf(nextHalf, linkEnd.length);
+        }
+        int h = 2 * links++;
+        linkEnd[h] = u;
+        linkEnd[h + 1] = w;
+        nextHalf[h] = firstHalf[u];
+        firstHalf[u] = h;
+        nextHalf[h + 1] = firstHalf[w];
+        firstHalf[w] = h + 1;
+    }
+
+    // Index of a device id, or -1 if it has never been seen
+    private int indexOf(int device) {
+        int mask = tableKeys.length - 1;
+        for (int slot = hash(device) & mask; tableValues[slot] != 0; slot = (slot + 1) & mask) {
+            if (tableKeys[slot] == device) {
+                return tableValues[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    // Index of a device id, adding the device if it is new
+    private int indexFor(int device) {
+        int index = indexOf(device);
+        if (index >= 0) {
+            return index;
+        }
+        if (devices == ids.length) {
+            growDevices();
+        }
+        index = devices++;
+        ids[index] = device;
+        firstHalf[index] = NONE;
+        childFirst[index] = NONE;
+        if (2 * devices > tableKeys.length) {
+            rehash(2 * tableKeys.length);
+        }
+        put(device, index);
+        return index;
+    }
+
+    private void put(int device, int index) {
+        int mask = tableKeys.length - 1;
+        int slot = hash(device) & mask;
+        while (tableValues[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        tableKeys[slot] = device;
+        tableValues[slot] = index + 1;
+    }
+
+    private void rehash(int capacity) {
+        tableKeys = new int[capacity];
+        tableValues = new int[capacity];
+        for (int i = 1; i < devices; i++) {
+            put(ids[i], i);
+        }
+    }
+
+    // murmur3 finalizer, so consecutive ids spread over the table
+    private static int hash(int key) {
+        key ^= key >>> 16;
+        key *= 0x85EBCA6B;
+        key ^= key >>> 13;
+        key *= 0xC2B2AE35;
+        key ^= key >>> 16;
+        return key;
+    }
+
+    private void growDevices() {
+        int capacity = 2 * ids.length;
+        ids = Arrays.copyOf(ids, capacity);
+        firstHalf = Arrays.copyOf(firstHalf, capacity);
+        inService = Arrays.copyOf(inService, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        blockParent = Arrays.copyOf(blockParent, capacity);
+        blockSize = Arrays.copyOf(blockSize, capacity);
+        top = Arrays.copyOf(top, capacity);
+        memberFirst = Arrays.copyOf(memberFirst, capacity);
+        memberLast = Arrays.copyOf(memberLast, capacity);
+        memberNext = Arrays.copyOf(memberNext, capacity);
+        childFirst = Arrays.copyOf(childFirst, capacity);
+        childNext = Arrays.copyOf(childNext, capacity);
+        childPrevious = Arrays.copyOf(childPrevious, capacity);
+        stack = Arrays.copyOf(stack, capacity);
+        grafted = Arrays.copyOf(grafted, capacity);
+        pre = Arrays.copyOf(pre, capacity);
+        low = Arrays.copyOf(low, capacity);
+        cursor = Arrays.copyOf(cursor, capacity);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+    Purpose:
+    Reusable outage query engine over a NetworkGraph. It reports the devices reached from a failed device in exactly
+    the order of the recursive DFS in NetworkOutage, but without recursion and without allocating per query.
+
+    How it works:
+    1. The recursion is replaced by two parallel int[] stacks: the device index of each open call and the position in
+       its neighbour list where that call resumes. Taking the next unvisited neighbour of the top entry and pushing it
+       reproduces the recursive preorder, and a daisy chain of millions of devices only deepens the arrays.
+    2. Visited marks are epoch stamps: a device counts as visited when its stamp equals the current query number, so
+       starting a query is one increment instead of clearing n flags. The stamps are cleared only when the counter
+       wraps around.
+    3. Impacted device ids are written into a caller-supplied int[] and the count is returned.
+    A query costs O(devices reached + their links). An instance is not thread-safe; give each thread its own.
+    */
+
+import java.util.Arrays;
+
+class OutageTraversal {
+    private final NetworkGraph graph;
+    private final int[] stamp; // Query number that last reached each device index
+    private final int[] stack; // Device indices of the open DFS calls
+    private final int[] cursor; // Next position in the neighbour list of each open call
+    private int epoch;
+
+    OutageTraversal(NetworkGraph graph) {
+        this.graph = graph;
+        this.stamp = new int[graph.size()];
+        this.stack = new int[graph.size()];
+        this.cursor = new int[graph.size()];
+    }
+
+    // Writes the ids of the devices impacted by an outage of targetDevice into out, in DFS preorder; returns how many
+    int findImpacted(int targetDevice, int[] out) {
+        int target = graph.indexOf(targetDevice);
+        if (target < 0) {
+            return 0; // No link mentions the device
+        }
+        if (out.length < graph.size() - 1) {
+            throw new IllegalArgumentException("Output buffer holds " + out.length + " devices, need " + (graph.size() - 1));
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        int[] offsets = graph.offsets, adjacency = graph.adjacency;
+        int count = 0;
+        int depth = 0;
+        stamp[target] = epoch;
+        stack[depth] = target;
+        cursor[depth++] = offsets[target];
+        while (depth > 0) {
+            int top = depth - 1;
+            int k = cursor[top], end = offsets[stack[top] + 1];
+            while (k < end && stamp[adjacency[k]] == epoch) {
+                k++;
+            }
+            if (k == end) {
+                depth--; // Every neighbour is done, return from this call
+                continue;
+            }
+            cursor[top] = k + 1;
+            int next = adjacency[k];
+            stamp[next] = epoch;
+            out[count++] = graph.deviceAt(next);
+            stack[depth] = next;
+            cursor[depth++] = offsets[next];
+        }
+        return count;
+    }
+}
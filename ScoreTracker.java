@@ -14,24 +14,87 @@
     3. For the median:
        - If the total size is odd, the median is the top of the heap that has one extra element.
        - If the total size is even, the median is the average of the tops of both heaps.
+
+    Both heaps are DoubleHeaps: binary heaps of primitive doubles in a growable double[]. Scores are never boxed and
+    the ordering is a plain comparison instead of a Comparator call, so once the arrays have grown to fit the stream,
+    adding a score and reading the median allocate nothing.
     */
 
-import java.util.PriorityQueue;
-import java.util.Collections;
+import java.util.Arrays;
+
+class DoubleHeap {
+    private final boolean max; // Largest value on top if true, smallest otherwise
+    private double[] values = new double[16]; // values[0] is the top; children of i are 2i + 1 and 2i + 2
+    private int size;
+
+    DoubleHeap(boolean max) {
+        this.max = max;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    double peek() {
+        return values[0];
+    }
+
+    void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        // Move parents down until value fits
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!above(value, values[parent])) break;
+            values[i] = values[parent];
+            i = parent;
+        }
+        values[i] = value;
+    }
+
+    double poll() {
+        double top = values[0];
+        double last = values[--size];
+        // Move children up until the last value fits
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && above(values[child + 1], values[child])) child++;
+            if (!above(values[child], last)) break;
+            values[i] = values[child];
+            i = child;
+        }
+        values[i] = last;
+        return top;
+    }
+
+    // Whether a belongs nearer the top than b
+    private boolean above(double a, double b) {
+        return max ? a > b : a < b;
+    }
+}
 
 public class ScoreTracker {
        
-    private PriorityQueue<Double> lowerHalf; // Max heap
-    private PriorityQueue<Double> upperHalf; // Min heap
+    private final DoubleHeap lowerHalf = new DoubleHeap(true); // Max heap
+    private final DoubleHeap upperHalf = new DoubleHeap(false); // Min heap
 
     // Initializes a new ScoreTracker object.
     public ScoreTracker() {
-        lowerHalf = new PriorityQueue<>(Collections.reverseOrder()); // Max heap for lower half
-        upperHalf = new PriorityQueue<>(); // Min heap for upper half
     }
 
     // Adds a new assignment score to the data stream.
     public void addScore(double score) {
+        if (Double.isNaN(score)) {
+            throw new IllegalArgumentException("Score is not a number");
+        }
         if (lowerHalf.isEmpty() || score <= lowerHalf.peek()) {
             lowerHalf.add(score);
         } else {
@@ -48,6 +111,9 @@ public class ScoreTracker {
 
     // Returns the median of all the assignment scores in the data stream.
     public double getMedianScore() {
+        if (lowerHalf.isEmpty()) {
+            throw new IllegalStateException("No scores have been added");
+        }
         if (lowerHalf.size() == upperHalf.size()) {
             return (lowerHalf.peek() + upperHalf.peek()) / 2.0; // Average of two middle scores if even total
         } else {
@@ -68,5 +134,13 @@ public class ScoreTracker {
         scoreTracker.addScore(88.7);
         double median2 = scoreTracker.getMedianScore(); // Output: 86.95
         System.out.println("Median score after 6 scores: " + median2);
+
+        // Rolling median of the last 4 scores (see WindowedScoreTracker)
+        WindowedScoreTracker lastFour = WindowedScoreTracker.lastScores(4);
+        for (double score : new double[] {85.5, 92.3, 77.8, 90.1, 81.2, 88.7}) {
+            lastFour.addScore(score);
+        }
+        double median3 = lastFour.getMedianScore(); // Output: 84.95
+        System.out.println("Median of the last 4 scores: " + median3);
     }
 }
@@ -28,7 +28,16 @@
        c. Update the set of individuals who know the secret.
     4. The loop terminates when a pass through all intervals results in no new individuals learning the secret.
     5. Return the set of individuals who know the secret as the result.
+
+    The loop above rescans every interval until nothing changes. findIndividualsWithSecretSweep gets the same result
+    in O(k log k + n) for k intervals: two intervals pass the secret between them exactly when they share a person,
+    so after sorting by start, one sweep merges each run of overlapping intervals into a block of consecutive people.
+    Only the block containing firstPerson learns the secret. When intervals arrive one at a time,
+    StreamingSecretSharing keeps the same answer current with a disjoint-set over neighbouring people, marking each
+    person at most once over the whole stream.
     */
+import java.util.Arrays;
+
 public class SecretSharing {
 
     public static boolean[] findIndividualsWithSecret(int n, int[][] intervals, int firstPerson) {
@@ -62,6 +71,37 @@ public class SecretSharing {
         return knowsSecret;
     }
 
+    // Same result as findIndividualsWithSecret, from one sweep over the intervals sorted by start
+    public static boolean[] findIndividualsWithSecretSweep(int n, int[][] intervals, int firstPerson) {
+        // Pack each interval as start << 32 | end so a primitive sort orders them by start
+        long[] sorted = new long[intervals.length];
+        int k = 0;
+        for (int[] interval : intervals) {
+            if (interval[0] <= interval[1]) { // An empty interval shares nothing
+                sorted[k++] = (long) interval[0] << 32 | (interval[1] & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(sorted, 0, k);
+
+        boolean[] knowsSecret = new boolean[n];
+        knowsSecret[firstPerson] = true;
+        for (int i = 0; i < k; ) {
+            int start = (int) (sorted[i] >>> 32), end = (int) sorted[i++];
+            // Absorb every following interval that shares a person with the block so far
+            while (i < k && (int) (sorted[i] >>> 32) <= end) {
+                end = Math.max(end, (int) sorted[i++]);
+            }
+            if (start > firstPerson) {
+                break; // Blocks are sorted, so no later one contains firstPerson
+            }
+            if (firstPerson <= end) {
+                Arrays.fill(knowsSecret, start, end + 1, true);
+                break;
+            }
+        }
+        return knowsSecret;
+    }
+
     public static void main(String[] args) {
         int n = 5;
         int[][] intervals = {{0, 2}, {1, 3}, {2, 4}};
@@ -74,5 +114,23 @@ public class SecretSharing {
                 System.out.print(i + " ");
             }
         }
+        System.out.println();
+
+        boolean[] swept = findIndividualsWithSecretSweep(n, intervals, firstPerson);
+        System.out.print("Same result from the sweep: ");
+        for (int i = 0; i < n; i++) {
+            if (swept[i]) {
+                System.out.print(i + " ");
+            }
+        }
+        System.out.println();
+
+        // The same intervals arriving one at a time
+        StreamingSecretSharing stream = new StreamingSecretSharing(n, firstPerson);
+        for (int[] interval : intervals) {
+            int learned = stream.addInterval(interval[0], interval[1]);
+            System.out.println("After " + Arrays.toString(interval) + ": " + learned + " learned, knowers "
+                    + stream.knowsSecret());
+        }
     }
 }
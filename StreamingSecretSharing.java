@@ -0,0 +1,92 @@
+/*
+    Purpose:
+    SecretSharing for intervals that arrive one at a time. After each interval the set of people who know the secret
+    is the same as findIndividualsWithSecret would return for all intervals seen so far, without recomputing it.
+
+    Algorithm:
+    1. Two intervals pass the secret between them when they share a person, so the people covered by a chain of
+       overlapping intervals form a block of consecutive ids. A block is a run of linked neighbours: the link between
+       person j and j + 1 is made when an interval contains both.
+    2. Links are kept in two disjoint-set forests with "next" pointers. right.find(j) is the first person at or after
+       j whose link to the right is still missing, and left.find(j) the last person at or before j whose link to the
+       left is missing. Making a link points the person past it, so an interval [a, b] walks only over links it
+       creates and jumps over existing ones; each of the n - 1 links is made at most once in the whole stream.
+    3. The people who know the secret are always the block that contains firstPerson, i.e. the people from
+       left.find(firstPerson) to right.find(firstPerson). After each interval only the part of that block that is
+       new gets marked, so each person is marked once.
+    With path halving, an interval costs amortized near-constant time plus the links and people it adds.
+    */
+
+import java.util.BitSet;
+
+class StreamingSecretSharing {
+    private final int n;
+    private final int firstPerson;
+    private final int[] right; // right[j] == j while the link j -- j + 1 is missing; otherwise a later person
+    private final int[] left; // left[j] == j while the link j - 1 -- j is missing; otherwise an earlier person
+    private final BitSet knowsSecret;
+    private int low, high; // Everyone in [low, high] knows the secret, and nobody else
+
+    StreamingSecretSharing(int n, int firstPerson) {
+        if (firstPerson < 0 || firstPerson >= n) {
+            throw new IllegalArgumentException("First person " + firstPerson + " is not among " + n + " people");
+        }
+        this.n = n;
+        this.firstPerson = firstPerson;
+        this.right = new int[n];
+        this.left = new int[n];
+        for (int i = 0; i < n; i++) {
+            right[i] = i;
+            left[i] = i;
+        }
+        this.knowsSecret = new BitSet(n);
+        knowsSecret.set(firstPerson);
+        low = high = firstPerson;
+    }
+
+    // Adds the interval [start, end] of people; returns how many people learned the secret because of it
+    int addInterval(int start, int end) {
+        if (start > end) {
+            return 0; // An empty interval shares nothing
+        }
+        if (start < 0 || end >= n) {
+            throw new IllegalArgumentException("Interval [" + start + ", " + end + "] is outside 0.." + (n - 1));
+        }
+        for (int j = find(right, start); j < end; j = find(right, j + 1)) {
+            right[j] = j + 1; // Link j -- j + 1
+            left[j + 1] = j;
+        }
+        int newLow = find(left, firstPerson), newHigh = find(right, firstPerson);
+        int learned = (low - newLow) + (newHigh - high);
+        if (learned > 0) {
+            knowsSecret.set(newLow, low);
+            knowsSecret.set(high + 1, newHigh + 1);
+            low = newLow;
+            high = newHigh;
+        }
+        return learned;
+    }
+
+    boolean knows(int person) {
+        return person >= low && person <= high;
+    }
+
+    // Number of people who know the secret
+    int count() {
+        return high - low + 1;
+    }
+
+    // Live view of who knows the secret, updated in place by addInterval; callers must not modify it
+    BitSet knowsSecret() {
+        return knowsSecret;
+    }
+
+    // Follows pointers to the end of the run of made links, halving the path on the way
+    private static int find(int[] next, int j) {
+        while (next[j] != j) {
+            next[j] = next[next[j]];
+            j = next[j];
+        }
+        return j;
+    }
+}
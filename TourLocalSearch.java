@@ -0,0 +1,258 @@
+/*
+    Purpose:
+    Improves a complete TSP tour in place with 2-opt and Or-opt moves. AntColonyOptimization runs it on every ant's
+    tour after construction and before the pheromone update.
+
+    Algorithm:
+    1. Every city starts in a work queue; a city that is not in the queue has its "don't-look bit" set.
+    2. For the city a taken from the queue, try moves that add an edge from a to one of its nearest neighbours c only,
+       stopping the neighbour scan once d(a, c) is no shorter than the edge it would replace.
+       - 2-opt: remove edges (a, succ a) and (c, succ c), add (a, c) and (succ a, succ c) by reversing the path between
+         them, or the same with predecessors. The shorter side of the cycle is reversed.
+       - Or-opt: move the segment of 1 to 3 cities that starts at a next to c, in either orientation, shifting the
+         cities in between.
+    3. The first improving move is applied and the endpoints of every changed edge go back into the queue.
+    4. Stop when the queue is empty, so no city has an improving move left.
+    Because only neighbours are scanned and only cities near a change are revisited, the work per tour stays close to
+    linear. Moves are evaluated with d(x, y) as the cost of an edge in either direction, so distances should be
+    symmetric.
+
+    An instance keeps its position, queue and don't-look buffers between calls and is not thread-safe; parallel ants
+    each own one.
+    */
+
+class TourLocalSearch {
+
+    enum Mode { NONE, TWO_OPT, TWO_OPT_AND_OR_OPT }
+
+    private static final double EPSILON = 1e-9; // Minimum gain for a move to count as an improvement
+    private static final int MAX_SEGMENT = 3; // Longest segment moved by Or-opt
+
+    private final CityMatrix distance;
+    private final int[][] neighbours; // Nearest neighbours of each city, nearest first
+    private final boolean orOpt;
+    private final int n;
+    private final int[] position; // Index of each city in the tour being improved
+    private final int[] queue; // Circular work queue of cities whose don't-look bit is clear
+    private final boolean[] queued; // Whether a city is in the work queue
+    private final int[] segment = new int[MAX_SEGMENT]; // Cities being moved by Or-opt
+    private int head, count;
+    private int[] tour;
+
+    TourLocalSearch(CityMatrix distance, int[][] neighbours, Mode mode) {
+        this.distance = distance;
+        this.neighbours = neighbours;
+        this.orOpt = mode == Mode.TWO_OPT_AND_OR_OPT;
+        this.n = distance.size;
+        this.position = new int[n];
+        this.queue = new int[n];
+        this.queued = new boolean[n];
+    }
+
+    // Applies improving moves to tour until none is left; returns whether the tour changed
+    boolean improve(int[] tour) {
+        this.tour = tour;
+        head = 0;
+        count = 0;
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+            queued[tour[i]] = false;
+        }
+        if (n < 4) {
+            return false; // Every tour of three cities has the same edges
+        }
+        for (int i = 0; i < n; i++) {
+            push(tour[i]);
+        }
+        boolean changed = false;
+        while (count > 0) {
+            int city = pop();
+            if (twoOpt(city) || (orOpt && orOpt(city))) {
+                changed = true;
+                push(city); // Look at this city again until it has no improving move
+            }
+        }
+        this.tour = null;
+        return changed;
+    }
+
+    private void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            queue[(head + count++) % n] = city;
+        }
+    }
+
+    private int pop() {
+        int city = queue[head];
+        head = (head + 1) % n;
+        count--;
+        queued[city] = false;
+        return city;
+    }
+
+    private int next(int city) {
+        int p = position[city] + 1;
+        return tour[p == n ? 0 : p];
+    }
+
+    private int prev(int city) {
+        int p = position[city] - 1;
+        return tour[p < 0 ? n - 1 : p];
+    }
+
+    private double d(int a, int b) {
+        return distance.get(a, b);
+    }
+
+    // Tries 2-opt moves that add an edge from a to one of its neighbours, in both tour directions
+    private boolean twoOpt(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            int b = direction == 0 ? next(a) : prev(a);
+            double removed = d(a, b);
+            for (int c : neighbours[a]) {
+                double added = d(a, c);
+                if (added >= removed) break; // Neighbours are sorted, so no later one can help
+                int e = direction == 0 ? next(c) : prev(c);
+                if (c == b || e == a) continue;
+                double delta = added + d(b, e) - removed - d(c, e);
+                if (delta < -EPSILON) {
+                    if (direction == 0) {
+                        reverse(b, c); // a b ... c e -> a c ... b e
+                    } else {
+                        reverse(a, e); // b a ... e c -> b e ... a c
+                    }
+                    push(a);
+                    push(b);
+                    push(c);
+                    push(e);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Reverses the path that runs forward from city from to city to, or the rest of the cycle if that is shorter
+    private void reverse(int from, int to) {
+        int i = position[from], j = position[to];
+        int length = j - i;
+        if (length < 0) length += n;
+        length++;
+        if (2 * length > n) {
+            // Reversing the complement gives the same cycle read in the opposite direction
+            int k = i;
+            i = j + 1 == n ? 0 : j + 1;
+            j = k == 0 ? n - 1 : k - 1;
+            length = n - length;
+        }
+        for (int swaps = length / 2; swaps > 0; swaps--) {
+            int x = tour[i], y = tour[j];
+            tour[i] = y;
+            position[y] = i;
+            tour[j] = x;
+            position[x] = j;
+            if (++i == n) i = 0;
+            if (--j < 0) j = n - 1;
+        }
+    }
+
+    // Tries to move a segment of 1 to MAX_SEGMENT cities starting at a next to one of its neighbours
+    private boolean orOpt(int a) {
+        for (int length = 1; length <= Math.min(MAX_SEGMENT, n - 2); length++) {
+            int first = a;
+            int last = a;
+            for (int k = 1; k < length; k++) {
+                last = next(last);
+            }
+            int before = prev(first), after = next(last);
+            double gain = d(before, first) + d(last, after) - d(before, after);
+            if (gain <= EPSILON) continue;
+
+            for (int endpoint = 0; endpoint < 2; endpoint++) {
+                int s = endpoint == 0 ? first : last;
+                for (int c : neighbours[s]) {
+                    if (d(s, c) >= gain) break;
+                    if (inSegment(c, first, length)) continue;
+                    // Insert between c and one of its tour neighbours, with s next to c
+                    for (int side = 0; side < 2; side++) {
+                        int left = side == 0 ? c : prev(c);
+                        int right = side == 0 ? next(c) : c;
+                        if (inSegment(left, first, length) || inSegment(right, first, length)) continue;
+                        // Forward orientation joins left-first and last-right; reversed joins left-last and first-right
+                        double forward = d(left, first) + d(last, right) - d(left, right);
+                        double reversed = d(left, last) + d(first, right) - d(left, right);
+                        boolean reverseSegment = reversed < forward;
+                        double cost = reverseSegment ? reversed : forward;
+                        if (cost < gain - EPSILON) {
+                            moveSegment(first, length, left, reverseSegment);
+                            push(before);
+                            push(after);
+                            push(first);
+                            push(last);
+                            push(left);
+                            push(right);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Whether city lies within the segment of length cities starting at first
+    private boolean inSegment(int city, int first, int length) {
+        int offset = position[city] - position[first];
+        if (offset < 0) offset += n;
+        return offset < length;
+    }
+
+    // Moves the segment of length cities starting at first so that it follows city left, shifting the cities between
+    private void moveSegment(int first, int length, int left, boolean reverseSegment) {
+        int start = position[first];
+        for (int k = 0; k < length; k++) {
+            segment[k] = tour[(start + k) % n];
+        }
+        // Cities from the segment end up to left (forward), or from right back to the segment start (backward)
+        int forwardShift = position[left] - (start + length - 1);
+        if (forwardShift < 0) forwardShift += n;
+        int backwardShift = n - length - forwardShift;
+        if (forwardShift <= backwardShift) {
+            // S x1 .. left right -> x1 .. left S right: slide x1..left back over the segment
+            int write = start;
+            int read = (start + length) % n;
+            for (int k = 0; k < forwardShift; k++) {
+                int city = tour[read];
+                tour[write] = city;
+                position[city] = write;
+                write = write + 1 == n ? 0 : write + 1;
+                read = read + 1 == n ? 0 : read + 1;
+            }
+            placeSegment(length, write, reverseSegment);
+        } else {
+            // left right .. y S -> left S right .. y: slide right..y forward over the segment
+            int write = (start + length - 1) % n;
+            int read = start == 0 ? n - 1 : start - 1;
+            for (int k = 0; k < backwardShift; k++) {
+                int city = tour[read];
+                tour[write] = city;
+                position[city] = write;
+                write = write == 0 ? n - 1 : write - 1;
+                read = read == 0 ? n - 1 : read - 1;
+            }
+            int begin = write - length + 1;
+            if (begin < 0) begin += n;
+            placeSegment(length, begin, reverseSegment);
+        }
+    }
+
+    private void placeSegment(int length, int begin, boolean reverseSegment) {
+        for (int k = 0; k < length; k++) {
+            int city = segment[reverseSegment ? length - 1 - k : k];
+            int p = (begin + k) % n;
+            tour[p] = city;
+            position[city] = p;
+        }
+    }
+}
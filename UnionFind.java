@@ -0,0 +1,56 @@
+/*
+    Purpose:
+    Disjoint-set forest with union by rank and path compression, used for cycle detection by KruskalAlgorithm and
+    DynamicMST.
+    */
+
+class UnionFind {
+    int[] parent, rank; // Parent array and rank array for Union-Find
+
+    // Constructor for the UnionFind class
+    UnionFind(int n) {
+        parent = new int[n]; // Initialize parent array
+        rank = new int[n]; // Initialize rank array
+        for (int i = 0; i < n; i++) {
+            parent[i] = i; // Each element is initially its own parent (self-loop)
+        }
+    }
+
+    // Find the representative of the set that contains element i
+    int find(int i) {
+        int root = i;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // Path compression heuristic, done iteratively so long chains cannot overflow the stack
+        while (parent[i] != root) {
+            int next = parent[i];
+            parent[i] = root;
+            i = next;
+        }
+        return root;
+    }
+
+    // Representative of i without path compression; safe for many threads to call while no union is running
+    int root(int i) {
+        while (parent[i] != i) {
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Union of two sets represented by x and y
+    void union(int x, int y) {
+        int xRoot = find(x), yRoot = find(y); // Find the roots of the sets
+
+        // Union by rank heuristic
+        if (rank[xRoot] < rank[yRoot])
+            parent[xRoot] = yRoot;
+        else if (rank[yRoot] < rank[xRoot])
+            parent[yRoot] = xRoot;
+        else {
+            parent[yRoot] = xRoot;
+            rank[xRoot]++;
+        }
+    }
+}
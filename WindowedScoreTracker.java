@@ -0,0 +1,241 @@
+/*
+    Purpose:
+    Rolling median for ScoreTracker streams that never end. Instead of every score ever added, the median covers a
+    window: the last N scores, the scores of the last T seconds, or both limits at once. Scores leave the window as
+    new ones arrive or time passes, so memory stays bounded by the window size.
+
+    Algorithm:
+    1. The scores in the window are kept twice: in arrival order in a ring buffer, which says which score leaves
+       next, and sorted in a treap, which finds the middle scores.
+    2. The treap is an order-statistic tree: every node stores the size of its subtree, so the k-th smallest score
+       is found by walking down from the root and comparing k with the size of the left subtree.
+    3. Adding a score inserts a node; a score leaving the window removes a node with the same value (equal scores
+       are interchangeable). Random priorities keep the treap balanced, so insert, remove and select are O(log n)
+       expected.
+    4. Nodes live in parallel arrays with a free list and the ring buffer grows by doubling up to the window size,
+       so once the window has filled, adding a score and reading the median allocate nothing.
+    The time window is checked on every add and every read, so a dashboard polling an idle stream sees old scores
+    expire.
+    */
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+class WindowedScoreTracker {
+    private final int maxScores;
+    private final long windowNanos;
+    private final LongSupplier clock; // Nanosecond timestamps
+
+    // Window contents in arrival order; the oldest is at head
+    private double[] ringScores;
+    private long[] ringTimes;
+    private int head, count;
+
+    // Treap nodes; node 0 is the empty tree, with size 0
+    private double[] value;
+    private int[] left, right, size, priority;
+    private int root, free, used = 1; // free is a list of removed nodes linked through left[]
+    private int seed = 0x2545F491;
+
+    // Keeps at most maxScores scores, each for at most windowNanos after it was added
+    WindowedScoreTracker(int maxScores, long windowNanos, LongSupplier clock) {
+        if (maxScores < 1 || windowNanos < 1) {
+            throw new IllegalArgumentException("Window must hold at least one score");
+        }
+        this.maxScores = maxScores;
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+        int capacity = Math.min(maxScores, 16);
+        ringScores = new double[capacity];
+        ringTimes = new long[capacity];
+        value = new double[capacity + 1];
+        left = new int[capacity + 1];
+        right = new int[capacity + 1];
+        size = new int[capacity + 1];
+        priority = new int[capacity + 1];
+    }
+
+    // Median of the last n scores
+    static WindowedScoreTracker lastScores(int n) {
+        return new WindowedScoreTracker(n, Long.MAX_VALUE, () -> 0L);
+    }
+
+    // Median of the scores added in the last seconds seconds
+    static WindowedScoreTracker lastSeconds(long seconds) {
+        if (seconds < 1) {
+            throw new IllegalArgumentException("Window must last at least one second");
+        }
+        // Saturates at Long.MAX_VALUE nanoseconds (about 292 years) instead of wrapping
+        return new WindowedScoreTracker(Integer.MAX_VALUE - 8, TimeUnit.SECONDS.toNanos(seconds), System::nanoTime);
+    }
+
+    void addScore(double score) {
+        if (Double.isNaN(score)) {
+            throw new IllegalArgumentException("Score is not a number");
+        }
+        long now = clock.getAsLong();
+        expire(now);
+        if (count == maxScores) {
+            removeOldest();
+        }
+        if (count == ringScores.length) {
+            grow();
+        }
+        int tail = head + count < ringScores.length ? head + count : head + count - ringScores.length;
+        ringScores[tail] = score;
+        ringTimes[tail] = now;
+        count++;
+        root = insert(root, newNode(score));
+    }
+
+    // Median of the scores in the window
+    double getMedianScore() {
+        expire(clock.getAsLong());
+        if (count == 0) {
+            throw new IllegalStateException("No scores in the window");
+        }
+        if (count % 2 == 0) {
+            return (select(count / 2 - 1) + select(count / 2)) / 2.0; // Average of two middle scores if even total
+        }
+        return select(count / 2);
+    }
+
+    // Number of scores in the window
+    int size() {
+        expire(clock.getAsLong());
+        return count;
+    }
+
+    private void expire(long now) {
+        while (count > 0 && now - ringTimes[head] >= windowNanos) {
+            removeOldest();
+        }
+    }
+
+    private void removeOldest() {
+        root = remove(root, ringScores[head]);
+        head = head + 1 == ringScores.length ? 0 : head + 1;
+        count--;
+    }
+
+    // Doubles the ring buffer (unrolling it so the oldest score is first) and the node arrays
+    private void grow() {
+        int capacity = (int) Math.min(2L * ringScores.length, maxScores);
+        double[] scores = new double[capacity];
+        long[] times = new long[capacity];
+        int firstPart = Math.min(count, ringScores.length - head);
+        System.arraycopy(ringScores, head, scores, 0, firstPart);
+        System.arraycopy(ringScores, 0, scores, firstPart, count - firstPart);
+        System.arraycopy(ringTimes, head, times, 0, firstPart);
+        System.arraycopy(ringTimes, 0, times, firstPart, count - firstPart);
+        ringScores = scores;
+        ringTimes = times;
+        head = 0;
+        value = Arrays.copyOf(value, capacity + 1);
+        left = Arrays.copyOf(left, capacity + 1);
+        right = Arrays.copyOf(right, capacity + 1);
+        size = Arrays.copyOf(size, capacity + 1);
+        priority = Arrays.copyOf(priority, capacity + 1);
+    }
+
+    private int newNode(double score) {
+        int node;
+        if (free != 0) {
+            node = free;
+            free = left[node];
+        } else {
+            node = used++;
+        }
+        // xorshift
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        value[node] = score;
+        priority[node] = seed;
+        left[node] = right[node] = 0;
+        size[node] = 1;
+        return node;
+    }
+
+    // Inserts node into the tree rooted at t and returns the new root
+    private int insert(int t, int node) {
+        if (t == 0) {
+            return node;
+        }
+        size[t]++;
+        if (value[node] < value[t]) {
+            left[t] = insert(left[t], node);
+            if (priority[left[t]] > priority[t]) t = rotateRight(t);
+        } else {
+            right[t] = insert(right[t], node);
+            if (priority[right[t]] > priority[t]) t = rotateLeft(t);
+        }
+        return t;
+    }
+
+    // Removes one node holding score from the tree rooted at t and returns the new root; score must be present
+    private int remove(int t, double score) {
+        if (value[t] == score) {
+            int merged = merge(left[t], right[t]);
+            left[t] = free;
+            free = t;
+            return merged;
+        }
+        size[t]--;
+        if (score < value[t]) {
+            left[t] = remove(left[t], score);
+        } else {
+            right[t] = remove(right[t], score);
+        }
+        return t;
+    }
+
+    // Joins two trees where every score in a is at most every score in b
+    private int merge(int a, int b) {
+        if (a == 0) return b;
+        if (b == 0) return a;
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            size[a] = size[left[a]] + size[right[a]] + 1;
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        size[b] = size[left[b]] + size[right[b]] + 1;
+        return b;
+    }
+
+    private int rotateRight(int t) {
+        int l = left[t];
+        left[t] = right[l];
+        right[l] = t;
+        size[l] = size[t];
+        size[t] = size[left[t]] + size[right[t]] + 1;
+        return l;
+    }
+
+    private int rotateLeft(int t) {
+        int r = right[t];
+        right[t] = left[r];
+        left[r] = t;
+        size[r] = size[t];
+        size[t] = size[left[t]] + size[right[t]] + 1;
+        return r;
+    }
+
+    // k-th smallest score in the window, counting from 0
+    private double select(int k) {
+        int t = root;
+        while (true) {
+            int smaller = size[left[t]];
+            if (k < smaller) {
+                t = left[t];
+            } else if (k == smaller) {
+                return value[t];
+            } else {
+                k -= smaller + 1;
+                t = right[t];
+            }
+        }
+    }
+}
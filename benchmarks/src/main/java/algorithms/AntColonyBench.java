@@ -0,0 +1,58 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One AntColonyOptimization iteration (10 ants) on distance matrices of 10^3, 10^5 and 10^7 entries, and its tour
+// construction phase alone, with ants scanning every city (candidateListSize 0) or only the 15 nearest neighbours
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AntColonyBench {
+
+    @Param({"32", "317", "3163"})
+    int cities;
+
+    @Param({"0", "15"})
+    int candidateListSize;
+
+    private double[][] distance;
+    private AntColonyOptimization aco;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        distance = BenchmarkInputs.euclideanDistances(cities, cities);
+    }
+
+    @Setup(Level.Iteration)
+    public void createSolver() {
+        aco = new AntColonyOptimization(distance, 1L);
+        aco.setNumberOfAnts(10);
+        aco.setCandidateListSize(candidateListSize);
+    }
+
+    @Benchmark
+    public double iteration() {
+        return aco.runIteration(null);
+    }
+
+    @Benchmark
+    public int construction() {
+        return aco.constructAllTours(null);
+    }
+}
@@ -0,0 +1,145 @@
+package algorithms;
+
+/*
+    Purpose:
+    Seeded input generators shared by the JMH benchmarks, so every run of a benchmark sees the same data.
+    - Random connected graphs: a random spanning tree plus extra random edges, as Edge[] or int[][] pairs.
+    - Key-and-door mazes for MazeSolver: open cells with scattered walls, keys 'a'..'f' and matching doors.
+    - Score streams for ScoreTracker and interval sets for SecretSharing.
+    - Cost matrices: venue x theme costs and Euclidean city distances.
+    - Balanced binary search trees for ClosetValueinBST.
+    */
+
+import java.util.Random;
+
+final class BenchmarkInputs {
+
+    private BenchmarkInputs() {
+    }
+
+    // V vertices and E >= V - 1 edges as {src, dest} pairs; the first V - 1 edges form a spanning tree
+    static int[][] randomConnectedPairs(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        int[][] pairs = new int[edges][];
+        for (int v = 1; v < vertices; v++) {
+            pairs[v - 1] = new int[]{random.nextInt(v), v};
+        }
+        for (int e = vertices - 1; e < edges; e++) {
+            int a = random.nextInt(vertices), b = random.nextInt(vertices - 1);
+            pairs[e] = new int[]{a, b >= a ? b + 1 : b}; // No self-loops
+        }
+        // Shuffle so the spanning tree edges are not all at the front
+        for (int i = edges - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int[] t = pairs[i];
+            pairs[i] = pairs[j];
+            pairs[j] = t;
+        }
+        return pairs;
+    }
+
+    // Random connected graph with weights in [1, maxWeight]
+    static Edge[] randomConnectedGraph(int vertices, int edges, int maxWeight, long seed) {
+        int[][] pairs = randomConnectedPairs(vertices, edges, seed);
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        Edge[] result = new Edge[edges];
+        for (int e = 0; e < edges; e++) {
+            result[e] = new Edge(pairs[e][0], pairs[e][1], 1 + random.nextInt(maxWeight));
+        }
+        return result;
+    }
+
+    // rows x cols maze with 'S' in the top-left corner, 'E' in the bottom-right, the given number of keys and
+    // their doors at random open cells, and about wallRatio of the remaining cells walled off
+    static String[][] randomMaze(int rows, int cols, int keys, double wallRatio, long seed) {
+        Random random = new Random(seed);
+        String[][] grid = new String[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                grid[i][j] = random.nextDouble() < wallRatio ? "W" : "P";
+            }
+        }
+        grid[0][0] = "S";
+        grid[rows - 1][cols - 1] = "E";
+        for (int k = 0; k < keys; k++) {
+            placeAtRandomPath(grid, String.valueOf((char) ('a' + k)), random);
+            placeAtRandomPath(grid, String.valueOf((char) ('A' + k)), random);
+        }
+        return grid;
+    }
+
+    private static void placeAtRandomPath(String[][] grid, String cell, Random random) {
+        while (true) {
+            int i = random.nextInt(grid.length), j = random.nextInt(grid[0].length);
+            if (grid[i][j].equals("P") || grid[i][j].equals("W")) {
+                grid[i][j] = cell;
+                return;
+            }
+        }
+    }
+
+    // Scores uniformly spread over [0, 100)
+    static double[] scoreStream(int length, long seed) {
+        Random random = new Random(seed);
+        double[] scores = new double[length];
+        for (int i = 0; i < length; i++) {
+            scores[i] = random.nextDouble() * 100;
+        }
+        return scores;
+    }
+
+    // count {start, end} intervals inside [0, n) with lengths up to maxLength
+    static int[][] randomIntervals(int n, int count, int maxLength, long seed) {
+        Random random = new Random(seed);
+        int[][] intervals = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int start = random.nextInt(n);
+            int end = Math.min(n - 1, start + random.nextInt(maxLength));
+            intervals[i] = new int[]{start, end};
+        }
+        return intervals;
+    }
+
+    // venues x themes matrix of positive costs
+    static int[][] costMatrix(int venues, int themes, long seed) {
+        Random random = new Random(seed);
+        int[][] costs = new int[venues][themes];
+        for (int i = 0; i < venues; i++) {
+            for (int j = 0; j < themes; j++) {
+                costs[i][j] = 1 + random.nextInt(100);
+            }
+        }
+        return costs;
+    }
+
+    // Distances between random points in the unit square
+    static double[][] euclideanDistances(int cities, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[cities], y = new double[cities];
+        for (int i = 0; i < cities; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+        }
+        double[][] distance = new double[cities][cities];
+        for (int i = 0; i < cities; i++) {
+            for (int j = 0; j < cities; j++) {
+                distance[i][j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+        }
+        return distance;
+    }
+
+    // Balanced BST holding the even numbers 0, 2, ..., 2 * (size - 1)
+    static TreeNode balancedTree(int size) {
+        return balancedTree(0, size - 1);
+    }
+
+    private static TreeNode balancedTree(int low, int high) {
+        if (low > high) return null;
+        int mid = (low + high) >>> 1;
+        TreeNode node = new TreeNode(2 * mid);
+        node.left = balancedTree(low, mid - 1);
+        node.right = balancedTree(mid + 1, high);
+        return node;
+    }
+}
@@ -0,0 +1,43 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The 10 values closest to a target in a balanced BST of size nodes
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ClosetValueBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    private TreeNode root;
+    private double target;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        root = BenchmarkInputs.balancedTree(size);
+        target = size + 0.4; // Middle of the value range 0 .. 2 * (size - 1)
+    }
+
+    @Benchmark
+    public int[] closestValues() {
+        return ClosetValueinBST.findClosestValues(root, target, 10);
+    }
+}
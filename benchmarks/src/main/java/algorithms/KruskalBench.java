@@ -0,0 +1,79 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Kruskal's MST on random connected graphs with size edges and size / 8 vertices. The external variant reads the
+// same edges from a temporary file in eight sorted runs.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KruskalBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    private Edge[] edges;
+    private EdgeList edgeList;
+    private int vertices;
+    private Path edgeFile;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        vertices = Math.max(2, size / 8);
+        edges = BenchmarkInputs.randomConnectedGraph(vertices, size, 1_000_000, size);
+        int[] src = new int[size], dest = new int[size], weight = new int[size];
+        for (int e = 0; e < size; e++) {
+            src[e] = edges[e].src;
+            dest[e] = edges[e].dest;
+            weight[e] = edges[e].weight;
+        }
+        edgeList = new EdgeList(src, dest, weight);
+        edgeFile = Files.createTempFile("kruskal-bench", ".bin");
+        ExternalKruskal.write(edgeList, edgeFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(edgeFile);
+    }
+
+    @Benchmark
+    public Edge[] minimumSpanningTree() {
+        return KruskalAlgorithm.computeMST(edges, vertices);
+    }
+
+    @Benchmark
+    public EdgeList minimumSpanningTreeArrays() {
+        return KruskalAlgorithm.computeMST(edgeList, vertices);
+    }
+
+    @Benchmark
+    public EdgeList minimumSpanningTreeParallel() {
+        return KruskalAlgorithm.computeMSTParallel(edgeList, vertices);
+    }
+
+    @Benchmark
+    public EdgeList minimumSpanningTreeExternal() throws IOException {
+        return KruskalAlgorithm.computeMSTExternal(edgeFile, vertices, Math.max(1, size / 8));
+    }
+}
@@ -0,0 +1,68 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Key-collecting BFS on square mazes of size cells with six keys and doors.
+// The solver allocates 64 visited flags per cell, so 10^7 cells needs a heap well above 1 GB.
+// The packed variant runs the same search on a byte grid with one reused MazeSearch, and the key-graph variant
+// searches (point, keys) with Dijkstra after one BFS per key, door and start. minMovesToExit is the A* search
+// that also has to reach 'E'.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MazeSolverBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"6"})
+    int keys;
+
+    private String[][] grid;
+    private byte[] cells;
+    private int side;
+    private final MazeSearch search = new MazeSearch();
+
+    @Setup(Level.Trial)
+    public void generate() {
+        side = (int) Math.ceil(Math.sqrt(size));
+        grid = BenchmarkInputs.randomMaze(side, side, keys, 0.2, size);
+        cells = MazeSolver.toBytes(grid);
+    }
+
+    @Benchmark
+    public int minMoves() {
+        return MazeSolver.minMovesToCollectAllKeys(grid);
+    }
+
+    @Benchmark
+    public int minMovesPacked() {
+        return search.minMovesToCollectAllKeys(cells, side, side);
+    }
+
+    @Benchmark
+    public int minMovesKeyGraph() {
+        return search.minMovesViaKeyGraph(cells, side, side);
+    }
+
+    @Benchmark
+    public int minMovesToExit() {
+        return search.minMovesToExit(cells, side, side);
+    }
+}
@@ -0,0 +1,94 @@
+package algorithms;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Outage impact query on random connected networks with size links and size / 2 devices.
+// The DFS is recursive, so forks get a large thread stack. The prebuilt variant queries a NetworkGraph built once
+// per trial, so only the traversal is measured; the iterative variant reuses one OutageTraversal and output buffer.
+// lostDevicesIndexed answers the loss-of-service query from an OutageImpactIndex with device 0 as the core router.
+// The storm variants answer 64 failures at once, one traversal per failure or as one bit-parallel BatchOutageQuery.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Xss1g"})
+public class NetworkOutageBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    private int[][] edges;
+    private int targetDevice;
+    private NetworkGraph graph;
+    private OutageTraversal traversal;
+    private int[] impacted;
+    private OutageImpactIndex impactIndex;
+    private BatchOutageQuery batchQuery;
+    private int[] failedDevices;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        int devices = Math.max(2, size / 2);
+        edges = BenchmarkInputs.randomConnectedPairs(devices, size, size);
+        targetDevice = devices / 2;
+        graph = new NetworkGraph(edges);
+        traversal = new OutageTraversal(graph);
+        impacted = new int[graph.size()];
+        impactIndex = new OutageImpactIndex(edges, new int[]{0});
+        impactIndex.lostDeviceCount(0); // Build the index outside the measurement
+        batchQuery = new BatchOutageQuery(graph);
+        failedDevices = new int[BatchOutageQuery.BATCH];
+        for (int i = 0; i < failedDevices.length; i++) {
+            failedDevices[i] = (int) ((long) i * devices / failedDevices.length);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> impactedDevices() {
+        return NetworkOutage.findImpactedDevices(edges, targetDevice);
+    }
+
+    @Benchmark
+    public List<Integer> impactedDevicesPrebuilt() {
+        return NetworkOutage.findImpactedDevices(graph, targetDevice);
+    }
+
+    @Benchmark
+    public int impactedDevicesIterative() {
+        return traversal.findImpacted(targetDevice, impacted);
+    }
+
+    @Benchmark
+    public int lostDevicesIndexed() {
+        return impactIndex.findLostDevices(targetDevice, impacted);
+    }
+
+    @Benchmark
+    public int stormOneByOne() {
+        int total = 0;
+        for (int device : failedDevices) {
+            total += traversal.findImpacted(device, impacted);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BatchOutageQuery.Result stormBatched() {
+        return batchQuery.run(failedDevices);
+    }
+}
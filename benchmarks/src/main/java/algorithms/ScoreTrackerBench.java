@@ -0,0 +1,61 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Streaming median: add size scores to a fresh tracker, reading the median after every score; the windowed variant
+// keeps only the last WINDOW scores
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScoreTrackerBench {
+
+    static final int WINDOW = 1000;
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    private double[] scores;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        scores = BenchmarkInputs.scoreStream(size, size);
+    }
+
+    @Benchmark
+    public double streamMedian() {
+        ScoreTracker tracker = new ScoreTracker();
+        double sum = 0;
+        for (double score : scores) {
+            tracker.addScore(score);
+            sum += tracker.getMedianScore();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double windowedMedian() {
+        WindowedScoreTracker tracker = WindowedScoreTracker.lastScores(WINDOW);
+        double sum = 0;
+        for (double score : scores) {
+            tracker.addScore(score);
+            sum += tracker.getMedianScore();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Secret spreading over size people and size / 100 random intervals of up to 200 people, by repeated passes and by
+// one sorted sweep, and by feeding the intervals one at a time to StreamingSecretSharing
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SecretSharingBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    private int[][] intervals;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        intervals = BenchmarkInputs.randomIntervals(size, Math.max(1, size / 100), 200, size);
+    }
+
+    @Benchmark
+    public boolean[] spread() {
+        return SecretSharing.findIndividualsWithSecret(size, intervals, 0);
+    }
+
+    @Benchmark
+    public boolean[] spreadSweep() {
+        return SecretSharing.findIndividualsWithSecretSweep(size, intervals, 0);
+    }
+
+    @Benchmark
+    public int spreadStreaming() {
+        StreamingSecretSharing stream = new StreamingSecretSharing(size, 0);
+        for (int[] interval : intervals) {
+            stream.addInterval(interval[0], interval[1]);
+        }
+        return stream.count();
+    }
+}
@@ -0,0 +1,124 @@
+package algorithms;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Union-find throughput under contention: every thread mixes unions and same-set queries on random pairs of one
+// shared structure. The lock-free ConcurrentUnionFind is compared with UnionFind behind a single lock, at 1 to 8
+// threads. The structure is rebuilt before each iteration so unions keep succeeding.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UnionFindContentionBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    private ConcurrentUnionFind lockFree;
+    private UnionFind locked;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        lockFree = new ConcurrentUnionFind(size);
+        locked = new UnionFind(size);
+    }
+
+    // Each thread draws its own pairs
+    @State(Scope.Thread)
+    public static class Pairs {
+        private final SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+        private int step;
+
+        int next(int size) {
+            return random.nextInt(size);
+        }
+
+        boolean unionTurn() {
+            return (step++ & 1) == 0; // Alternate unions and queries
+        }
+    }
+
+    private boolean lockFreeOp(Pairs pairs) {
+        int x = pairs.next(size), y = pairs.next(size);
+        return pairs.unionTurn() ? lockFree.union(x, y) : lockFree.sameSet(x, y);
+    }
+
+    private boolean lockedOp(Pairs pairs) {
+        int x = pairs.next(size), y = pairs.next(size);
+        boolean union = pairs.unionTurn();
+        synchronized (locked) {
+            if (union) {
+                int xRoot = locked.find(x), yRoot = locked.find(y);
+                if (xRoot == yRoot) return false;
+                locked.union(xRoot, yRoot);
+                return true;
+            }
+            return locked.find(x) == locked.find(y);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean lockFree1(Pairs pairs) {
+        return lockFreeOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean lockFree2(Pairs pairs) {
+        return lockFreeOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean lockFree4(Pairs pairs) {
+        return lockFreeOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean lockFree8(Pairs pairs) {
+        return lockFreeOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean locked1(Pairs pairs) {
+        return lockedOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean locked2(Pairs pairs) {
+        return lockedOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean locked4(Pairs pairs) {
+        return lockedOp(pairs);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean locked8(Pairs pairs) {
+        return lockedOp(pairs);
+    }
+}
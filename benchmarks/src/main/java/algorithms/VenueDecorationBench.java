@@ -0,0 +1,45 @@
+package algorithms;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Minimum decoration cost over a cost matrix of size entries (size / 10 venues x 10 themes).
+// The memoized recursion is one frame per venue, so forks get a large thread stack.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Xss1g"})
+public class VenueDecorationBench {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"10"})
+    int themes;
+
+    private int[][] costs;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        costs = BenchmarkInputs.costMatrix(Math.max(1, size / themes), themes, size);
+    }
+
+    @Benchmark
+    public int minCost() {
+        return VenueDecoration.minCostToDecorate(costs);
+    }
+}